@@ -19,36 +19,64 @@
 
 package com.github.lucasaraujo;
 
+import com.github.lucasaraujo.incremental.BuildState;
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.incremental.OutputWriter;
+import com.github.lucasaraujo.scanner.ApiClassScanner;
+import com.github.lucasaraujo.scanner.ScanScope;
 import com.github.lucasaraujo.swagger.builder.ApiDeclarationBuilder;
+import com.github.lucasaraujo.swagger.builder.ControllerMetadata;
+import com.github.lucasaraujo.swagger.builder.ControllerMetadata.OperationMetadata;
+import com.github.lucasaraujo.swagger.builder.DeclarationContext;
+import com.github.lucasaraujo.swagger.builder.ReflectionSource;
 import com.github.lucasaraujo.swagger.builder.ResourceObjectBuilder;
+import com.github.lucasaraujo.swagger.builder.TypeResolver;
 import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.model.ModelObject;
 import com.github.lucasaraujo.swagger.model.ResourceListing;
 import com.github.lucasaraujo.swagger.model.ResourceObject;
-import com.wordnik.swagger.annotations.Api;
+import com.github.lucasaraujo.swagger.serializer.Swagger2Document;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializer;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
-import org.codehaus.jackson.map.ObjectMapper;
-import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
-import org.reflections.Reflections;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Lucas Araújo
  */
-@Mojo(name = "generate", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME, configurator = "include-project-dependencies")
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME)
 public class ApiSourceMojo extends AbstractMojo {
 
+    private static final String BUILD_STATE_FILE = "build-state.json";
+
     @Parameter(defaultValue = "true")
     public boolean useOutputFlatStructure;
+    @Parameter(defaultValue = "0")
+    private int hashPrefixLength;
     @Parameter(required = true)
     private String apiVersion;
     @Parameter(defaultValue = "/", required = true)
@@ -57,58 +85,466 @@ public class ApiSourceMojo extends AbstractMojo {
     private String[] locations;
     @Parameter(defaultValue = "${basedir}", required = true)
     private File swaggerDirectory;
+    @Parameter(defaultValue = "${project.runtimeClasspathElements}", readonly = true, required = true)
+    private List<String> classpathElements;
+    @Parameter(defaultValue = "${project.build.outputDirectory}", readonly = true, required = true)
+    private File outputDirectory;
+    @Parameter(defaultValue = "${project.artifacts}", readonly = true)
+    private Set<Artifact> artifacts;
+    @Parameter(defaultValue = "false")
+    private boolean scanOutputOnly;
+    @Parameter
+    private String[] scanDependencies;
+    @Parameter
+    private String[] scanExcludes;
+    @Parameter(defaultValue = "0")
+    private int scanThreads;
+    @Parameter(defaultValue = "true")
+    private boolean incremental;
+    @Parameter(defaultValue = "${project.build.directory}/swagger-vraptor", required = true)
+    private File workDirectory;
+    @Parameter(defaultValue = "true")
+    private boolean scanCache;
+    @Parameter(defaultValue = "${settings.localRepository}/.cache/swagger-vraptor/scans")
+    private File scanCacheDirectory;
+    @Parameter(defaultValue = "1")
+    private int generateThreads;
+    @Parameter(defaultValue = "false")
+    private boolean gzip;
+    @Parameter(defaultValue = "false")
+    private boolean bundle;
+    @Parameter(defaultValue = "false")
+    private boolean canonical;
+    @Parameter(defaultValue = "false")
+    private boolean manifest;
+    @Parameter(defaultValue = "false")
+    private boolean smile;
+    @Parameter(defaultValue = "false")
+    private boolean swagger2;
+    @Parameter(defaultValue = "${project.name}")
+    private String title;
+    @Parameter(defaultValue = "false")
+    private boolean sharedModels;
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
 
     public void execute() throws MojoExecutionException {
         getLog().debug(toString());
         getSwaggerDirectory().mkdirs();
 
-        ResourceListing listing = new ResourceListing();
-        listing.apiVersion = getApiVersion();
-        listing.apis = new ArrayList<ResourceObject>();
-
-        for (Class<?> clazz : getValidClasses()) {
-            for (ResourceObject resourceObject : ResourceObjectBuilder.buildOf(clazz)) {
-                listing.apis.add(resourceObject);
-                ApiDeclaration apiDeclaration = ApiDeclarationBuilder.buildOf(clazz);
-                apiDeclaration.apiVersion = apiVersion;
-                apiDeclaration.basePath = basePath;
-                apiDeclaration.resourcePath = resourceObject.path;
-
-                try {
-                    ObjectMapper mapper = new ObjectMapper();
-                    mapper.setSerializationInclusion(Inclusion.NON_NULL);
-                    File file = new File(getSwaggerDirectory(), resourceObject.path);
-                    file.createNewFile();
-                    mapper.writeValue(file, apiDeclaration);
-                } catch (Exception e) {
-                    throw new MojoExecutionException("Generating file error", e);
+        SessionCache cache = SessionCache.of(session);
+        ProjectClassLoader classLoader = createClassLoader();
+        try {
+            generate(classLoader, cache);
+        } finally {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                getLog().debug("Closing project class loader error", e);
+            }
+        }
+    }
+
+    private void generate(ClassLoader classLoader, SessionCache cache) throws MojoExecutionException {
+        File stateFile = new File(getWorkDirectory(), BUILD_STATE_FILE);
+        // the state of the previous generation, its controllers are only reused with the same configuration
+        String configuration = getConfiguration();
+        BuildState recorded = BuildState.read(stateFile);
+        BuildState previous = (isIncremental() && recorded != null && configuration.equals(recorded.configuration)) ? recorded : null;
+        BuildState state = new BuildState(configuration);
+        SwaggerSerializer serializer = new SwaggerSerializer(isCanonical());
+        OutputWriter output = new OutputWriter(isGzip());
+        if (isSmile() && isBundle()) {
+            getLog().warn("Smile documents are not written in the bundle mode");
+        }
+        IncrementalPlanner planner = new IncrementalPlanner(getSwaggerDirectory(), previous, isBundle(), isSharedModels(),
+                isGzip(), isSmile() && !isBundle(), serializer, getLog());
+        Documents documents = isBundle()
+                ? new Documents.Bundled(getSwaggerDirectory(), output, planner.previousBundle(), ListingWriter.FILE, SharedModelsWriter.FILE)
+                : new Documents.Files(getSwaggerDirectory(), output);
+
+        // in the order the controllers are added to them and the documents written
+        List<DocumentWriter> writers = new ArrayList<DocumentWriter>();
+        writers.add(new DeclarationWriter(documents));
+        SharedModelsWriter models = null;
+        if (isSharedModels()) {
+            models = new SharedModelsWriter(documents, serializer, getApiVersion(), getBasePath(), planner.previousModels(), isSmile() && !isBundle());
+            writers.add(models);
+        }
+        if (isSwagger2()) {
+            Swagger2Document swagger2 = new Swagger2Document(getTitle(), getApiVersion(), getBasePath());
+            writers.add(new Swagger2Writer(swagger2, documents, planner, models, serializer, getLog()));
+        }
+        ListingWriter listing = new ListingWriter(documents, serializer, getApiVersion(), previous, isSmile() && !isBundle());
+        writers.add(listing);
+        if (isManifest()) {
+            writers.add(new ManifestWriter(documents, isSharedModels()));
+        }
+
+        int generated = generateControllers(getValidClassNames(cache), classLoader, cache, serializer, planner, state, models, writers);
+        try {
+            for (DocumentWriter writer : writers) {
+                writer.write();
+            }
+            if (!isSharedModels()) {
+                documents.delete(SharedModelsWriter.FILE);
+            }
+            documents.close();
+            if (!isSwagger2()) {
+                output.delete(new File(getSwaggerDirectory(), Swagger2Writer.FILE));
+            }
+            if (!isManifest()) {
+                output.delete(new File(getSwaggerDirectory(), ManifestWriter.FILE));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Generating file error", e);
+        }
+        state.swaggerDirectory = getSwaggerDirectory().getAbsolutePath();
+        state.outputs = outputs(listing.listing());
+        if (recorded != null) {
+            deleteStaleOutputs(recorded, state.outputs, output);
+        }
+        getLog().info(String.format("Generated %d of %d API classes, %d files written and %d unchanged",
+                generated, state.controllers.size(), output.written(), output.skipped()));
+
+        try {
+            state.write(stateFile);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Writing build state error", e);
+        }
+    }
+
+    /**
+     * Generates the controllers the planner tells to and adds every
+     * controller to the writers, in the order of their class names.
+     *
+     * @param models the shared models, <code>null</code> when every
+     *               declaration holds its own models
+     * @return the number of controllers generated
+     */
+    private int generateControllers(Set<String> classNames, ClassLoader classLoader, SessionCache cache, SwaggerSerializer serializer,
+                                    IncrementalPlanner planner, BuildState state, SharedModelsWriter models,
+                                    List<DocumentWriter> writers) throws MojoExecutionException {
+        TypeResolver types = new TypeResolver();
+        OutputLayout layout = getOutputLayout();
+        Map<String, String> nicknames = new HashMap<String, String>();
+        // the controllers to generate, in the order of their class names
+        Map<String, Callable<Generation>> tasks = new LinkedHashMap<String, Callable<Generation>>();
+        try {
+            for (String className : planner.plan(classNames, classLoader, state)) {
+                tasks.put(className, generation(className, classLoader, cache, types, serializer));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Checking generated files error", e);
+        }
+
+        int regenerated = 0;
+        int threads = Math.min(getGenerateThreads() < 1 ? Runtime.getRuntime().availableProcessors() : getGenerateThreads(), tasks.size());
+        ExecutorService executor = (threads > 1) ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            Map<String, Future<Generation>> results = new HashMap<String, Future<Generation>>();
+            if (executor != null) {
+                for (Map.Entry<String, Callable<Generation>> task : tasks.entrySet()) {
+                    results.put(task.getKey(), executor.submit(task.getValue()));
+                }
+            }
+            // the documents are written by this thread in the order of the
+            // sequential generation, whatever the order the tasks finish
+            for (String className : classNames) {
+                Callable<Generation> task = tasks.get(className);
+                Generation generation = (task == null) ? null : ((executor == null) ? call(task) : get(results.get(className)));
+                if (generation == null && models != null && models.conflicts(state.controllers.get(className))) {
+                    // an earlier controller now shares another model with the same id
+                    generation = call(generation(className, classLoader, cache, types, serializer));
+                    ++regenerated;
+                }
+                if (generation != null && models != null) {
+                    List<String> conflicts = models.conflicts(generation.controller.models, generation.declaration.models);
+                    if (!conflicts.isEmpty()) {
+                        getLog().warn(String.format("Models %s of %s differ from the shared ones with the same id, kept inline",
+                                conflicts, className));
+                        generation.inline(serializer, isSmile() && !isBundle());
+                    }
+                }
+                if (generation != null) {
+                    state.controllers.put(className, generation.controller);
                 }
+                ControllerState controller = state.controllers.get(className);
+                claimLocations(layout, className, controller);
+                for (DocumentWriter writer : writers) {
+                    writer.add(controller, generation);
+                }
+                checkNicknames(className, controller, nicknames, isSwagger2());
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Generating file error", e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        return tasks.size() + regenerated;
+    }
+
+    private ProjectClassLoader createClassLoader() throws MojoExecutionException {
+        try {
+            return new ProjectClassLoader(classpathElements, getClass().getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new MojoExecutionException("Unable to access project classpath", e);
+        }
+    }
+
+    private Callable<Generation> generation(final String className, final ClassLoader classLoader, final SessionCache cache,
+                                            final TypeResolver types, final SwaggerSerializer serializer) {
+        return new Callable<Generation>() {
+            public Generation call() throws MojoExecutionException, IOException {
+                return generate(loadClass(className, classLoader), classLoader, cache, types, serializer);
+            }
+        };
+    }
+
+    /**
+     * Builds and serializes the declarations of a controller. Everything it
+     * shares with the other controllers (models, resolved types and the
+     * serializer) is safe to use from several threads.
+     */
+    private Generation generate(Class<?> clazz, ClassLoader classLoader, SessionCache cache, TypeResolver types, SwaggerSerializer serializer) throws MojoExecutionException, IOException {
+        Generation generation = new Generation();
+        ControllerState controller = generation.controller;
+        ControllerMetadata metadata = ControllerMetadata.of(new ReflectionSource(types).type(clazz), cache.paths);
+        OutputLayout layout = getOutputLayout();
+        controller.resources = ResourceObjectBuilder.buildOf(metadata, layout.isFlat());
+        controller.nicknames = new ArrayList<String>();
+        for (OperationMetadata operation : metadata.operations) {
+            controller.nicknames.add(operation.nickname);
+        }
+        Collections.sort(controller.nicknames);
+        DeclarationContext context = new DeclarationContext(cache.models, types);
+        ApiDeclaration apiDeclaration = ApiDeclarationBuilder.buildOf(metadata, context);
+        apiDeclaration.apiVersion = apiVersion;
+        apiDeclaration.basePath = basePath;
+        generation.declaration = apiDeclaration;
+        Map<String, ModelObject> models = apiDeclaration.models;
+        controller.keepMapValues(models);
+        if (isSharedModels()) {
+            // the declarations only list the models they need, written once to the shared document
+            controller.models = new ArrayList<String>(new TreeSet<String>(models.keySet()));
+            apiDeclaration.models = null;
+            apiDeclaration.modelsPath = "/" + SharedModelsWriter.FILE;
+            apiDeclaration.modelIds = controller.models.toArray(new String[controller.models.size()]);
+        }
+        for (ResourceObject resourceObject : controller.resources) {
+            apiDeclaration.resourcePath = resourceObject.path;
+            resourceObject.path = layout.location(resourceObject.path);
+            generation.resourcePaths.put(resourceObject.path, apiDeclaration.resourcePath);
+            generation.documents.put(resourceObject.path, serializer.serialize(apiDeclaration));
+            if (isSmile() && !isBundle()) {
+                generation.smileDocuments.put(resourceObject.path, serializer.serializeSmile(apiDeclaration));
             }
         }
+        apiDeclaration.models = models;
+        controller.addDependencies(classLoader, context.dependencies);
+        return generation;
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setSerializationInclusion(Inclusion.NON_NULL);
+    private static Generation call(Callable<Generation> task) throws MojoExecutionException, IOException {
         try {
-            File file = new File(getSwaggerDirectory(), "service");
-            file.createNewFile();
-            mapper.writeValue(file, listing);
+            return task.call();
+        } catch (MojoExecutionException e) {
+            throw e;
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
-            throw new MojoExecutionException("Generating file error", e);
+            throw new MojoExecutionException("Generating declarations error", e);
         }
     }
 
-    private Set<Class<?>> getValidClasses() {
-        Set<Class<?>> classes;
-        if (getLocations() != null && getLocations().length > 0) {
-            classes = new HashSet<Class<?>>();
-            for (String location : getLocations()) {
-                Reflections reflections = new Reflections(location);
-                classes.addAll(reflections.getTypesAnnotatedWith(Api.class));
+    private static Generation get(Future<Generation> result) throws MojoExecutionException, IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Generating declarations interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) e.getCause();
             }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new MojoExecutionException("Generating declarations error", e.getCause());
+        }
+    }
+
+    /**
+     * Fails when a declaration of the controller would overwrite another one,
+     * of the same controller or of an earlier one.
+     */
+    private static void claimLocations(OutputLayout layout, String className, ControllerState controller) throws MojoExecutionException {
+        for (ResourceObject resourceObject : controller.resources) {
+            String owner = layout.claim(resourceObject.path, className);
+            if (owner != null) {
+                throw new MojoExecutionException(String.format("Declaration %s of %s is also written for %s, their resource paths"
+                        + " must stay different once written as file names", resourceObject.path, className, owner));
+            }
+        }
+    }
+
+    /**
+     * Warns about the operations whose nickname is not unique where clients
+     * look it up: in the declaration of the controller and, when it is
+     * written, in the Swagger 2.0 document. A nickname only reused by another
+     * declaration is logged at debug level.
+     *
+     * @param nicknames the controller of each nickname seen so far
+     */
+    private void checkNicknames(String className, ControllerState controller, Map<String, String> nicknames, boolean swagger2) {
+        String previous = null;
+        String duplicate = null;
+        for (String nickname : controller.nicknames) {
+            if (nickname.equals(previous)) {
+                if (!nickname.equals(duplicate)) {
+                    getLog().warn(String.format("Operation nickname %s is used by several operations of %s", nickname, className));
+                    duplicate = nickname;
+                }
+                continue;
+            }
+            previous = nickname;
+            String owner = nicknames.get(nickname);
+            if (owner == null) {
+                nicknames.put(nickname, className);
+            } else if (swagger2) {
+                getLog().warn(String.format("Operation nickname %s of %s is also used by %s, operation ids must be unique"
+                        + " in the Swagger 2.0 document", nickname, className, owner));
+            } else {
+                getLog().debug(String.format("Operation nickname %s of %s is also used by %s", nickname, className, owner));
+            }
+        }
+    }
+
+    /**
+     * @return the documents the configuration writes to the swagger
+     * directory, relative to it
+     */
+    private Set<String> outputs(ResourceListing listing) {
+        Set<String> outputs = new TreeSet<String>();
+        if (isBundle()) {
+            outputs.add("/" + Documents.BUNDLE_FILE);
         } else {
-            classes = new Reflections("").getTypesAnnotatedWith(Api.class);
+            outputs.add("/" + ListingWriter.FILE);
+            for (ResourceObject resourceObject : listing.apis) {
+                outputs.add(resourceObject.path);
+            }
+            if (isSharedModels()) {
+                outputs.add("/" + SharedModelsWriter.FILE);
+            }
+        }
+        if (isSwagger2()) {
+            outputs.add("/" + Swagger2Writer.FILE);
+        }
+        if (isManifest()) {
+            outputs.add("/" + ManifestWriter.FILE);
+        }
+        return outputs;
+    }
+
+    /**
+     * Deletes the documents of the previous generation that are not written
+     * anymore, whatever configuration they were written with: removed
+     * resources, files of another layout or of the other bundle mode.
+     */
+    private void deleteStaleOutputs(BuildState recorded, Set<String> outputs, OutputWriter output) {
+        if (recorded.outputs == null || !getSwaggerDirectory().getAbsolutePath().equals(recorded.swaggerDirectory)) {
+            return;
+        }
+        for (String path : recorded.outputs) {
+            if (!outputs.contains(path)) {
+                File file = new File(getSwaggerDirectory(), path);
+                output.delete(file);
+                output.delete(new File(file.getParentFile(), file.getName() + Documents.SMILE_SUFFIX));
+                deleteEmptyDirectories(file.getParentFile());
+            }
+        }
+    }
+
+    /**
+     * Deletes the directory and its parents as long as they are empty, up to
+     * the swagger directory.
+     */
+    private void deleteEmptyDirectories(File directory) {
+        File root = getSwaggerDirectory().getAbsoluteFile();
+        for (File current = directory.getAbsoluteFile(); current != null && !current.equals(root); current = current.getParentFile()) {
+            String[] files = current.list();
+            if (files == null || files.length > 0 || !current.delete()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the version of the plugin and every parameter the documents
+     * depend on, one per line
+     */
+    String getConfiguration() {
+        StringBuilder configuration = new StringBuilder();
+        appendParameter(configuration, "version", (plugin == null) ? null : plugin.getVersion());
+        appendParameter(configuration, "useOutputFlatStructure", isUseOutputFlatStructure());
+        appendParameter(configuration, "hashPrefixLength", getHashPrefixLength());
+        appendParameter(configuration, "apiVersion", getApiVersion());
+        appendParameter(configuration, "basePath", getBasePath());
+        appendParameter(configuration, "title", getTitle());
+        appendParameter(configuration, "locations", getLocations());
+        appendParameter(configuration, "scanOutputOnly", isScanOutputOnly());
+        appendParameter(configuration, "scanDependencies", getScanDependencies());
+        appendParameter(configuration, "scanExcludes", getScanExcludes());
+        appendParameter(configuration, "swaggerDirectory", getSwaggerDirectory().getAbsolutePath());
+        appendParameter(configuration, "gzip", isGzip());
+        appendParameter(configuration, "bundle", isBundle());
+        appendParameter(configuration, "canonical", isCanonical());
+        appendParameter(configuration, "smile", isSmile());
+        appendParameter(configuration, "sharedModels", isSharedModels());
+        appendParameter(configuration, "swagger2", isSwagger2());
+        appendParameter(configuration, "manifest", isManifest());
+        return configuration.toString();
+    }
+
+    private static void appendParameter(StringBuilder configuration, String name, Object value) {
+        configuration.append(name).append('=');
+        configuration.append((value instanceof Object[]) ? Arrays.toString((Object[]) value) : String.valueOf(value));
+        configuration.append('\n');
+    }
+
+    private OutputLayout getOutputLayout() {
+        return new OutputLayout(isUseOutputFlatStructure(), getHashPrefixLength());
+    }
+
+    private Set<String> getValidClassNames(SessionCache cache) throws MojoExecutionException {
+        ScanScope scope = new ScanScope(outputDirectory, isScanOutputOnly(), getScanDependencies(), getScanExcludes());
+        List<File> roots = scope.roots(classpathElements, artifacts);
+        getLog().debug("Scanning " + roots.size() + " of " + classpathElements.size() + " classpath elements");
+
+        Set<String> classNames;
+        ApiClassScanner scanner = new ApiClassScanner(getLocations(), getScanThreads(), cache.jarScans(isScanCache() ? getScanCacheDirectory() : null));
+        try {
+            classNames = scanner.scan(roots);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Scanning classpath error", e);
+        }
+        for (String message : scanner.skipped()) {
+            getLog().warn(message);
+        }
+        getLog().debug("Found " + classNames.size() + " @Api classes: " + classNames);
+        return classNames;
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) throws MojoExecutionException {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new MojoExecutionException("Loading class error: " + className, e);
         }
-        return classes;
     }
 
     public String getApiVersion() {
@@ -143,6 +579,150 @@ public class ApiSourceMojo extends AbstractMojo {
         this.swaggerDirectory = swaggerDirectory;
     }
 
+    public boolean isScanOutputOnly() {
+        return scanOutputOnly;
+    }
+
+    public void setScanOutputOnly(boolean scanOutputOnly) {
+        this.scanOutputOnly = scanOutputOnly;
+    }
+
+    public String[] getScanDependencies() {
+        return scanDependencies;
+    }
+
+    public void setScanDependencies(String[] scanDependencies) {
+        this.scanDependencies = scanDependencies;
+    }
+
+    public String[] getScanExcludes() {
+        return scanExcludes;
+    }
+
+    public void setScanExcludes(String[] scanExcludes) {
+        this.scanExcludes = scanExcludes;
+    }
+
+    public int getScanThreads() {
+        return scanThreads;
+    }
+
+    public void setScanThreads(int scanThreads) {
+        this.scanThreads = scanThreads;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public File getWorkDirectory() {
+        return workDirectory;
+    }
+
+    public void setWorkDirectory(File workDirectory) {
+        this.workDirectory = workDirectory;
+    }
+
+    public boolean isScanCache() {
+        return scanCache;
+    }
+
+    public void setScanCache(boolean scanCache) {
+        this.scanCache = scanCache;
+    }
+
+    public File getScanCacheDirectory() {
+        return scanCacheDirectory;
+    }
+
+    public void setScanCacheDirectory(File scanCacheDirectory) {
+        this.scanCacheDirectory = scanCacheDirectory;
+    }
+
+    public int getGenerateThreads() {
+        return generateThreads;
+    }
+
+    public void setGenerateThreads(int generateThreads) {
+        this.generateThreads = generateThreads;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    public boolean isBundle() {
+        return bundle;
+    }
+
+    public void setBundle(boolean bundle) {
+        this.bundle = bundle;
+    }
+
+    public int getHashPrefixLength() {
+        return hashPrefixLength;
+    }
+
+    public void setHashPrefixLength(int hashPrefixLength) {
+        this.hashPrefixLength = hashPrefixLength;
+    }
+
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    public void setCanonical(boolean canonical) {
+        this.canonical = canonical;
+    }
+
+    public boolean isManifest() {
+        return manifest;
+    }
+
+    public void setManifest(boolean manifest) {
+        this.manifest = manifest;
+    }
+
+    public boolean isSmile() {
+        return smile;
+    }
+
+    public void setSmile(boolean smile) {
+        this.smile = smile;
+    }
+
+    public boolean isSwagger2() {
+        return swagger2;
+    }
+
+    public void setSwagger2(boolean swagger2) {
+        this.swagger2 = swagger2;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public boolean isSharedModels() {
+        return sharedModels;
+    }
+
+    public void setSharedModels(boolean sharedModels) {
+        this.sharedModels = sharedModels;
+    }
+
     public boolean isUseOutputFlatStructure() {
         return useOutputFlatStructure;
     }
@@ -155,10 +735,16 @@ public class ApiSourceMojo extends AbstractMojo {
     public String toString() {
         return "ApiSourceMojo{" +
                 "useOutputFlatStructure=" + useOutputFlatStructure +
+                ", hashPrefixLength=" + hashPrefixLength +
                 ", apiVersion='" + apiVersion + '\'' +
                 ", basePath='" + basePath + '\'' +
                 ", locations=" + Arrays.toString(locations) +
                 ", swaggerDirectory=" + swaggerDirectory +
+                ", gzip=" + gzip +
+                ", bundle=" + bundle +
+                ", canonical=" + canonical +
+                ", smile=" + smile +
+                ", sharedModels=" + sharedModels +
                 '}';
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.swagger.model.ResourceObject;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes the declarations of the generated controllers and keeps the ones
+ * of the unchanged controllers.
+ */
+class DeclarationWriter implements DocumentWriter {
+
+    private final Documents documents;
+
+    DeclarationWriter(Documents documents) {
+        this.documents = documents;
+    }
+
+    public void add(ControllerState controller, Generation generation) throws IOException {
+        if (generation != null) {
+            for (Map.Entry<String, byte[]> document : generation.documents.entrySet()) {
+                documents.write(document.getKey(), document.getValue(), generation.smileDocuments.get(document.getKey()));
+            }
+        } else {
+            for (ResourceObject resourceObject : controller.resources) {
+                documents.keep(resourceObject.path);
+            }
+        }
+    }
+
+    public void write() {
+    }
+
+}
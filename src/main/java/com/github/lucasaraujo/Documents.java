@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.Manifest;
+import com.github.lucasaraujo.incremental.OutputWriter;
+import com.github.lucasaraujo.swagger.serializer.Bundle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Where the listing, the declarations and the shared models are written:
+ * separate files of the swagger directory, each with an optional Smile
+ * sibling, or the entries of a single bundle.
+ */
+abstract class Documents {
+
+    static final String SMILE_SUFFIX = ".sml";
+    static final String BUNDLE_FILE = "service.bundle";
+
+    final File directory;
+    final OutputWriter output;
+
+    Documents(File directory, OutputWriter output) {
+        this.directory = directory;
+        this.output = output;
+    }
+
+    /**
+     * @param name  the path of the document, relative to the swagger
+     *              directory
+     * @param smile the Smile document, <code>null</code> when it is not
+     *              written
+     */
+    abstract void write(String name, byte[] content, byte[] smile) throws IOException;
+
+    /**
+     * Keeps the document written by the previous generation.
+     */
+    abstract void keep(String name);
+
+    /**
+     * @return <code>true</code> if the document of the previous generation is
+     * still there as it is
+     */
+    abstract boolean isKept(String name);
+
+    abstract void delete(String name);
+
+    /**
+     * Adds the hash, size and modification time of a written document to the
+     * manifest.
+     */
+    abstract void stamp(Manifest manifest, String path, String name) throws IOException;
+
+    /**
+     * Completes the documents once they were all written.
+     */
+    abstract void close() throws IOException;
+
+    static class Files extends Documents {
+
+        Files(File directory, OutputWriter output) {
+            super(directory, output);
+        }
+
+        @Override
+        void write(String name, byte[] content, byte[] smile) throws IOException {
+            File file = new File(directory, name);
+            output.write(file, content);
+            File sibling = new File(file.getParentFile(), file.getName() + SMILE_SUFFIX);
+            if (smile != null) {
+                output.write(sibling, smile);
+            } else {
+                output.delete(sibling);
+            }
+        }
+
+        @Override
+        void keep(String name) {
+        }
+
+        @Override
+        boolean isKept(String name) {
+            return new File(directory, name).isFile();
+        }
+
+        @Override
+        void delete(String name) {
+            File file = new File(directory, name);
+            output.delete(file);
+            output.delete(new File(file.getParentFile(), file.getName() + SMILE_SUFFIX));
+        }
+
+        @Override
+        void stamp(Manifest manifest, String path, String name) throws IOException {
+            manifest.put(path, new File(directory, name));
+        }
+
+        @Override
+        void close() {
+            output.delete(new File(directory, BUNDLE_FILE));
+        }
+
+    }
+
+    /**
+     * Documents of a bundle, written again as a whole with the entries of
+     * the unchanged controllers taken from the previous bundle.
+     */
+    static class Bundled extends Documents {
+
+        private final Map<String, byte[]> previous;
+        private final String[] leading;
+        private final Map<String, byte[]> documents = new LinkedHashMap<String, byte[]>();
+
+        /**
+         * @param previous the documents of the previous bundle
+         * @param leading  the documents written first in the bundle, whatever
+         *                 the order they are given in
+         */
+        Bundled(File directory, OutputWriter output, Map<String, byte[]> previous, String... leading) {
+            super(directory, output);
+            this.previous = previous;
+            this.leading = leading;
+        }
+
+        @Override
+        void write(String name, byte[] content, byte[] smile) {
+            documents.put(name, content);
+        }
+
+        @Override
+        void keep(String name) {
+            documents.put(name, previous.get(name));
+        }
+
+        @Override
+        boolean isKept(String name) {
+            return false;
+        }
+
+        @Override
+        void delete(String name) {
+            documents.remove(name);
+        }
+
+        @Override
+        void stamp(Manifest manifest, String path, String name) {
+            manifest.put(path, documents.get(name));
+        }
+
+        @Override
+        void close() throws IOException {
+            Map<String, byte[]> bundle = new LinkedHashMap<String, byte[]>();
+            for (String name : leading) {
+                if (documents.containsKey(name)) {
+                    bundle.put(name, documents.get(name));
+                }
+            }
+            bundle.putAll(documents);
+            output.write(new File(directory, BUNDLE_FILE), Bundle.write(bundle));
+        }
+
+    }
+
+}
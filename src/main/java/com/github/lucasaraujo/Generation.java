@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The state and the serialized declarations of a generated controller.
+ */
+class Generation {
+
+    final ControllerState controller = new ControllerState();
+
+    /**
+     * The declaration of each resource path.
+     */
+    final Map<String, byte[]> documents = new LinkedHashMap<String, byte[]>();
+
+    /**
+     * The Smile declaration of each resource path, when enabled.
+     */
+    final Map<String, byte[]> smileDocuments = new HashMap<String, byte[]>();
+
+    /**
+     * The declaration built for the resources, whatever their path.
+     */
+    ApiDeclaration declaration;
+
+    /**
+     * The path of each resource in its declaration, by the path of its
+     * file.
+     */
+    final Map<String, String> resourcePaths = new HashMap<String, String>();
+
+    /**
+     * Serializes the declarations again with their own models, instead of
+     * referring to the shared ones.
+     */
+    void inline(SwaggerSerializer serializer, boolean smile) throws IOException {
+        controller.models = null;
+        declaration.modelsPath = null;
+        declaration.modelIds = null;
+        for (Map.Entry<String, byte[]> document : documents.entrySet()) {
+            declaration.resourcePath = resourcePaths.get(document.getKey());
+            document.setValue(serializer.serialize(declaration));
+            if (smile) {
+                smileDocuments.put(document.getKey(), serializer.serializeSmile(declaration));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.BuildState;
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.incremental.OutputWriter;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.model.ModelObject;
+import com.github.lucasaraujo.swagger.model.ResourceObject;
+import com.github.lucasaraujo.swagger.serializer.Bundle;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializer;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells which controllers are generated again: the ones whose classes
+ * changed since the previous generation or whose documents are missing.
+ * The other controllers keep the state and the documents of the previous
+ * generation.
+ */
+class IncrementalPlanner {
+
+    private final File directory;
+    private final BuildState previous;
+    private final boolean gzip;
+    private final boolean smile;
+    private final SwaggerSerializer serializer;
+    private final Log log;
+    private final Map<String, byte[]> previousBundle;
+    private final Map<String, ModelObject> previousModels;
+
+    /**
+     * @param previous the state of the previous generation, <code>null</code>
+     *                 when every controller is generated
+     */
+    IncrementalPlanner(File directory, BuildState previous, boolean bundle, boolean sharedModels, boolean gzip, boolean smile,
+                       SwaggerSerializer serializer, Log log) {
+        this.directory = directory;
+        this.previous = previous;
+        this.gzip = gzip;
+        this.smile = smile;
+        this.serializer = serializer;
+        this.log = log;
+        this.previousBundle = (bundle && previous != null) ? readBundle() : null;
+        this.previousModels = (sharedModels && previous != null) ? readModels() : null;
+    }
+
+    /**
+     * Adds the state of the unchanged controllers to the state of this
+     * generation.
+     *
+     * @return the class names of the controllers to generate, in the order
+     * they are given
+     */
+    Set<String> plan(Set<String> classNames, ClassLoader classLoader, BuildState state) throws IOException {
+        Set<String> generated = new LinkedHashSet<String>();
+        for (String className : classNames) {
+            ControllerState controller = (previous == null) ? null : previous.controllers.get(className);
+            if (controller == null || controller.nicknames == null || !isGenerated(controller) || !controller.isUpToDate(classLoader)) {
+                generated.add(className);
+            } else {
+                state.controllers.put(className, controller);
+            }
+        }
+        return generated;
+    }
+
+    /**
+     * @return the declarations of the previous bundle in the bundle mode,
+     * <code>null</code> otherwise
+     */
+    Map<String, byte[]> previousBundle() {
+        return previousBundle;
+    }
+
+    /**
+     * @return the models of the previous shared document when the models are
+     * shared, <code>null</code> otherwise
+     */
+    Map<String, ModelObject> previousModels() {
+        return previousModels;
+    }
+
+    /**
+     * @return the declaration written by the previous generation
+     */
+    ApiDeclaration readDeclaration(String path) throws IOException {
+        return (previousBundle != null) ? serializer.readDeclaration(previousBundle.get(path))
+                : serializer.readDeclaration(new File(directory, path));
+    }
+
+    private boolean isGenerated(ControllerState controller) {
+        // controllers with inline models are generated again in case their models can be shared now
+        if (previousModels != null && (controller.models == null || !previousModels.keySet().containsAll(controller.models))) {
+            return false;
+        }
+        for (ResourceObject resourceObject : controller.resources) {
+            File file = new File(directory, resourceObject.path);
+            boolean generated = (previousBundle != null) ? previousBundle.containsKey(resourceObject.path)
+                    : file.isFile() && (!gzip || new File(file.getParentFile(), file.getName() + OutputWriter.GZIP_SUFFIX).isFile())
+                    && (!smile || new File(file.getParentFile(), file.getName() + Documents.SMILE_SUFFIX).isFile());
+            if (!generated) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the documents of the bundle written by the previous generation,
+     * empty when it can not be read
+     */
+    private Map<String, byte[]> readBundle() {
+        File file = new File(directory, Documents.BUNDLE_FILE);
+        if (file.isFile()) {
+            try {
+                return Bundle.read(file);
+            } catch (IOException e) {
+                log.debug("Reading previous bundle error", e);
+            }
+        }
+        return Collections.<String, byte[]>emptyMap();
+    }
+
+    /**
+     * @return the models of the shared document written by the previous
+     * generation, empty when it can not be read
+     */
+    private Map<String, ModelObject> readModels() {
+        File file = new File(directory, SharedModelsWriter.FILE);
+        try {
+            ApiDeclaration declaration = null;
+            if (previousBundle != null) {
+                byte[] content = previousBundle.get(SharedModelsWriter.FILE);
+                declaration = (content == null) ? null : serializer.readDeclaration(content);
+            } else if (file.isFile()) {
+                declaration = serializer.readDeclaration(file);
+            }
+            if (declaration != null && declaration.models != null) {
+                return declaration.models;
+            }
+        } catch (IOException e) {
+            log.debug("Reading previous models error", e);
+        }
+        return Collections.<String, ModelObject>emptyMap();
+    }
+
+}
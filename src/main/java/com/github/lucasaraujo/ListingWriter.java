@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.BuildState;
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.swagger.model.ResourceListing;
+import com.github.lucasaraujo.swagger.model.ResourceObject;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes the resource listing, left as it is when no controller was
+ * generated, added or removed since the previous generation.
+ */
+class ListingWriter implements DocumentWriter {
+
+    static final String FILE = "service";
+
+    private final Documents documents;
+    private final SwaggerSerializer serializer;
+    private final BuildState previous;
+    private final boolean smile;
+    private final ResourceListing listing = new ResourceListing();
+    private boolean changed;
+
+    /**
+     * @param previous the state of the previous generation, <code>null</code>
+     *                 when every controller is generated
+     */
+    ListingWriter(Documents documents, SwaggerSerializer serializer, String apiVersion, BuildState previous, boolean smile) {
+        this.documents = documents;
+        this.serializer = serializer;
+        this.previous = previous;
+        this.smile = smile;
+        listing.apiVersion = apiVersion;
+        listing.apis = new ArrayList<ResourceObject>();
+    }
+
+    public void add(ControllerState controller, Generation generation) {
+        changed |= (generation != null);
+        listing.apis.addAll(controller.resources);
+    }
+
+    public void write() throws IOException {
+        if (previous == null || changed || isRemoved() || !documents.isKept(FILE)) {
+            documents.write(FILE, serializer.serialize(listing), smile ? serializer.serializeSmile(listing) : null);
+        }
+    }
+
+    ResourceListing listing() {
+        return listing;
+    }
+
+    /**
+     * @return <code>true</code> if any resource was removed since the previous
+     * generation
+     */
+    private boolean isRemoved() {
+        Set<String> paths = new HashSet<String>();
+        for (ResourceObject resourceObject : listing.apis) {
+            paths.add(resourceObject.path);
+        }
+        for (ControllerState controller : previous.controllers.values()) {
+            for (ResourceObject resourceObject : controller.resources) {
+                if (!paths.contains(resourceObject.path)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
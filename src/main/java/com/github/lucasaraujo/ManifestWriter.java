@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.incremental.Manifest;
+import com.github.lucasaraujo.swagger.model.ResourceObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the hash, size and modification time of the listing, of the shared
+ * models and of every declaration. It is written once the other documents
+ * were.
+ */
+class ManifestWriter implements DocumentWriter {
+
+    static final String FILE = "service.manifest";
+
+    private final Documents documents;
+    private final boolean sharedModels;
+    private final List<String> paths = new ArrayList<String>();
+
+    ManifestWriter(Documents documents, boolean sharedModels) {
+        this.documents = documents;
+        this.sharedModels = sharedModels;
+    }
+
+    public void add(ControllerState controller, Generation generation) {
+        for (ResourceObject resourceObject : controller.resources) {
+            paths.add(resourceObject.path);
+        }
+    }
+
+    public void write() throws IOException {
+        Manifest manifest = new Manifest();
+        documents.stamp(manifest, "/" + ListingWriter.FILE, ListingWriter.FILE);
+        if (sharedModels) {
+            documents.stamp(manifest, "/" + SharedModelsWriter.FILE, SharedModelsWriter.FILE);
+        }
+        for (String path : paths) {
+            documents.stamp(manifest, path, path);
+        }
+        File file = new File(documents.directory, FILE);
+        manifest.stamp(Manifest.read(file), System.currentTimeMillis());
+        documents.output.write(file, manifest.toBytes());
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.Checksums;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Where the declaration of each resource is written, relative to the swagger
+ * directory. The flat structure writes every declaration in the directory
+ * itself, named after its one level resource path. The hierarchical structure
+ * mirrors the resource path with directories, each file having a
+ * <code>.json</code> suffix so a resource never clashes with the directory of
+ * the resources below it, optionally inside a directory named after the hash
+ * of the path to spread very wide APIs.
+ * <p/>
+ * Different resource paths may get the same location, <code>/a-b</code> and
+ * <code>/a.b</code> once sanitized for instance, so each location is claimed
+ * by a single controller of the generation.
+ */
+public class OutputLayout {
+
+    static final String SUFFIX = ".json";
+
+    private final boolean flat;
+    private final int hashPrefixLength;
+
+    /**
+     * The controller claiming each location, by lower case location so
+     * locations differing by case clash on every file system.
+     */
+    private final Map<String, String> owners = new HashMap<String, String>();
+
+    /**
+     * @param hashPrefixLength number of hex characters of the SHA-1 of the
+     *                         resource path naming the top directory of the
+     *                         hierarchical structure, none when 0
+     */
+    public OutputLayout(boolean flat, int hashPrefixLength) {
+        this.flat = flat;
+        this.hashPrefixLength = Math.max(0, Math.min(hashPrefixLength, 40));
+    }
+
+    public boolean isFlat() {
+        return flat;
+    }
+
+    /**
+     * @param resourcePath a resource path built for the structure, one level
+     *                     for the flat one
+     * @return the path of the declaration file, which is also the path of the
+     * resource in the listing
+     */
+    public String location(String resourcePath) {
+        if (flat) {
+            return resourcePath;
+        }
+        StringBuilder location = new StringBuilder();
+        if (hashPrefixLength > 0) {
+            location.append('/').append(sha1(resourcePath), 0, hashPrefixLength);
+        }
+        int length = location.length();
+        for (String segment : resourcePath.split("/")) {
+            if (segment.length() > 0) {
+                location.append('/').append(fileName(segment));
+            }
+        }
+        if (location.length() == length) { // the root resource
+            location.append("/_");
+        }
+        return location.append(SUFFIX).toString();
+    }
+
+    /**
+     * Claims the location of a declaration for a controller.
+     *
+     * @return the other controller that already claimed the location, or
+     * <code>null</code>
+     */
+    public synchronized String claim(String location, String className) {
+        String key = location.toLowerCase(Locale.ENGLISH);
+        String owner = owners.get(key);
+        if (owner == null) {
+            owners.put(key, className);
+        }
+        return owner;
+    }
+
+    /**
+     * @return the segment with the characters other than letters, digits,
+     * <code>_</code> and <code>-</code> replaced by an underscore
+     */
+    private static String fileName(String segment) {
+        StringBuilder name = new StringBuilder(segment.length());
+        for (int i = 0; i < segment.length(); ++i) {
+            char c = segment.charAt(i);
+            name.append((Character.isLetterOrDigit(c) || c == '_' || c == '-') ? c : '_');
+        }
+        return name.toString();
+    }
+
+    private static String sha1(String path) {
+        try {
+            return Checksums.sha1(path.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
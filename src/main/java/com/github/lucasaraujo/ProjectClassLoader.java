@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Loads the project classes for a single execution of the plugin. It is
+ * closed afterwards instead of growing the plugin class realm for the rest
+ * of the Maven session.
+ * <p/>
+ * The classes the builders compare against, the VRaptor and Swagger
+ * annotations, are shared with the plugin through a parent which only
+ * exposes their packages. Everything else comes from the JDK or from the
+ * project classpath.
+ */
+public class ProjectClassLoader extends URLClassLoader {
+
+    static final String[] SHARED_PACKAGES = {"br.com.caelum.vraptor.", "com.wordnik.swagger.annotations."};
+
+    public ProjectClassLoader(List<String> classpathElements, ClassLoader pluginClassLoader) throws MalformedURLException {
+        super(urls(classpathElements), new SharedClassLoader(pluginClassLoader));
+    }
+
+    private static URL[] urls(List<String> classpathElements) throws MalformedURLException {
+        URL[] urls = new URL[classpathElements.size()];
+        for (int i = 0; i < urls.length; ++i) {
+            urls[i] = new File(classpathElements.get(i)).toURI().toURL();
+        }
+        return urls;
+    }
+
+    static boolean isShared(String name) {
+        for (String sharedPackage : SHARED_PACKAGES) {
+            if (name.startsWith(sharedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delegates to the JDK, and to the plugin class loader for the shared
+     * packages only.
+     */
+    private static class SharedClassLoader extends ClassLoader {
+
+        private final ClassLoader pluginClassLoader;
+
+        SharedClassLoader(ClassLoader pluginClassLoader) {
+            super(ClassLoader.getSystemClassLoader().getParent());
+            this.pluginClassLoader = pluginClassLoader;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            if (isShared(name)) {
+                return pluginClassLoader.loadClass(name);
+            }
+            throw new ClassNotFoundException(name);
+        }
+
+        @Override
+        protected URL findResource(String name) {
+            return isShared(name.replace('/', '.')) ? pluginClassLoader.getResource(name) : null;
+        }
+
+        @Override
+        protected Enumeration<URL> findResources(String name) throws IOException {
+            if (isShared(name.replace('/', '.'))) {
+                return pluginClassLoader.getResources(name);
+            }
+            return Collections.enumeration(Collections.<URL>emptyList());
+        }
+
+    }
+
+}
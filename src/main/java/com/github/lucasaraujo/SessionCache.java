@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.scanner.JarScanCache;
+import com.github.lucasaraujo.swagger.builder.ModelRegistry;
+import com.github.lucasaraujo.swagger.builder.PathTemplates;
+import org.apache.maven.execution.MavenSession;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Scan results, models and path templates shared by the executions of the plugin during a
+ * single Maven session, so the modules of a reactor build after the first
+ * one only pay for their own classes.
+ */
+public class SessionCache {
+
+    private static final Map<MavenSession, SessionCache> CACHES = new WeakHashMap<MavenSession, SessionCache>();
+
+    private final Map<File, JarScanCache> jarScans = new HashMap<File, JarScanCache>();
+
+    public final ModelRegistry models = new ModelRegistry();
+    public final PathTemplates paths = new PathTemplates();
+
+    /**
+     * @param directory where the scan results are stored between builds, may
+     *                  be <code>null</code>
+     * @return the jar scan results of the session stored in the directory
+     */
+    public synchronized JarScanCache jarScans(File directory) {
+        JarScanCache cache = jarScans.get(directory);
+        if (cache == null) {
+            cache = new JarScanCache(directory);
+            jarScans.put(directory, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * @param session the Maven session, the cache is released with it
+     * @return the cache of the session, a new cache when it is <code>null</code>
+     */
+    public static SessionCache of(MavenSession session) {
+        if (session == null) {
+            return new SessionCache();
+        }
+        synchronized (CACHES) {
+            SessionCache cache = CACHES.get(session);
+            if (cache == null) {
+                cache = new SessionCache();
+                CACHES.put(session, cache);
+            }
+            return cache;
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.model.ModelObject;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the document of the models shared by the declarations, in the
+ * order of the controllers. The models of an unchanged controller are taken
+ * from the previous shared document.
+ */
+class SharedModelsWriter implements DocumentWriter {
+
+    static final String FILE = "service.models";
+
+    private final Documents documents;
+    private final SwaggerSerializer serializer;
+    private final Map<String, ModelObject> previousModels;
+    private final boolean smile;
+    private final ApiDeclaration shared = new ApiDeclaration();
+
+    /**
+     * @param previousModels the models of the previous shared document
+     */
+    SharedModelsWriter(Documents documents, SwaggerSerializer serializer, String apiVersion, String basePath,
+                       Map<String, ModelObject> previousModels, boolean smile) {
+        this.documents = documents;
+        this.serializer = serializer;
+        this.previousModels = previousModels;
+        this.smile = smile;
+        shared.apiVersion = apiVersion;
+        shared.basePath = basePath;
+        shared.resourcePath = "/" + FILE;
+        shared.models = new LinkedHashMap<String, ModelObject>();
+    }
+
+    public void add(ControllerState controller, Generation generation) {
+        if (controller.models != null) {
+            Map<String, ModelObject> source = (generation != null) ? generation.declaration.models : previousModels;
+            for (String id : controller.models) {
+                if (!shared.models.containsKey(id)) {
+                    shared.models.put(id, source.get(id));
+                }
+            }
+        }
+    }
+
+    public void write() throws IOException {
+        documents.write(FILE, serializer.serialize(shared), smile ? serializer.serializeSmile(shared) : null);
+    }
+
+    /**
+     * @return the shared models, by id
+     */
+    Map<String, ModelObject> models() {
+        return shared.models;
+    }
+
+    /**
+     * @return <code>true</code> if an earlier controller now shares another
+     * model with the same id as a model of the unchanged controller
+     */
+    boolean conflicts(ControllerState controller) {
+        return !conflicts(controller.models, previousModels).isEmpty();
+    }
+
+    /**
+     * @param ids    the ids of the models of a controller
+     * @param source the models of the controller
+     * @return the ids of the models of the controller that differ from the
+     * shared model with the same id
+     */
+    List<String> conflicts(List<String> ids, Map<String, ModelObject> source) {
+        List<String> conflicts = new ArrayList<String>();
+        for (String id : ids) {
+            ModelObject model = shared.models.get(id);
+            if (model != null && !model.sameAs(source.get(id))) {
+                conflicts.add(id);
+            }
+        }
+        return conflicts;
+    }
+
+}
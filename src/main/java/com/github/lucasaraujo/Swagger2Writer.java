@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.model.ModelObject;
+import com.github.lucasaraujo.swagger.model.ResourceObject;
+import com.github.lucasaraujo.swagger.serializer.Swagger2Document;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializer;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+
+/**
+ * Writes the Swagger 2.0 document, next to the other documents even in the
+ * bundle mode. The declarations of an unchanged
+ * controller are read back from the previous generation.
+ */
+class Swagger2Writer implements DocumentWriter {
+
+    static final String FILE = "swagger.json";
+
+    private final Swagger2Document document;
+    private final Documents documents;
+    private final IncrementalPlanner planner;
+    private final SharedModelsWriter models;
+    private final SwaggerSerializer serializer;
+    private final Log log;
+
+    /**
+     * @param models the shared models, <code>null</code> when every
+     *               declaration holds its own models
+     */
+    Swagger2Writer(Swagger2Document document, Documents documents, IncrementalPlanner planner, SharedModelsWriter models,
+                   SwaggerSerializer serializer, Log log) {
+        this.document = document;
+        this.documents = documents;
+        this.planner = planner;
+        this.models = models;
+        this.serializer = serializer;
+        this.log = log;
+    }
+
+    public void add(ControllerState controller, Generation generation) throws IOException {
+        for (ResourceObject resourceObject : controller.resources) {
+            ApiDeclaration declaration;
+            String resourcePath;
+            if (generation != null) {
+                declaration = generation.declaration;
+                resourcePath = generation.resourcePaths.get(resourceObject.path);
+            } else {
+                declaration = planner.readDeclaration(resourceObject.path);
+                resourcePath = declaration.resourcePath;
+            }
+            if (models != null && controller.models != null) {
+                // in the order of the shared document, whether the controller was generated or not
+                declaration.models = new LinkedHashMap<String, ModelObject>();
+                for (String id : controller.models) {
+                    declaration.models.put(id, models.models().get(id));
+                }
+            }
+            if (generation == null) {
+                controller.restoreMapValues(declaration.models);
+            }
+            document.add(resourcePath, resourceObject.description, declaration);
+        }
+    }
+
+    public void write() throws IOException {
+        for (String warning : document.warnings()) {
+            log.warn(warning);
+        }
+        documents.output.write(new File(documents.directory, FILE), serializer.serialize(document));
+    }
+
+}
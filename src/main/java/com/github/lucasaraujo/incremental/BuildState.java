@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.incremental;
+
+import com.github.lucasaraujo.swagger.model.DataTypeFields;
+import com.github.lucasaraujo.swagger.model.ItemsObject;
+import com.github.lucasaraujo.swagger.model.ModelObject;
+import com.github.lucasaraujo.swagger.model.PropertyObject;
+import com.github.lucasaraujo.swagger.model.ResourceObject;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Persistent record of a previous generation. For each {@link com.wordnik.swagger.annotations.Api}
+ * class it keeps the resources generated from it and the checksums of the
+ * class files they were built from, so unchanged controllers are neither
+ * loaded nor generated again.
+ */
+public class BuildState {
+
+    /**
+     * Identifies the configuration the state was generated with. A state
+     * generated with another configuration is never reused.
+     */
+    public String configuration;
+
+    /**
+     * Generated controllers, by class name.
+     */
+    public Map<String, ControllerState> controllers = new TreeMap<String, ControllerState>();
+
+    /**
+     * Absolute path of the directory the documents were written to.
+     */
+    public String swaggerDirectory;
+
+    /**
+     * Documents written to the swagger directory, relative to it. Their
+     * <code>.gz</code> and <code>.sml</code> siblings are not listed.
+     */
+    public Set<String> outputs = new TreeSet<String>();
+
+    public BuildState() {
+    }
+
+    public BuildState(String configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return the state stored in the file or <code>null</code> when it does
+     * not exist, can not be read or was generated with another configuration
+     */
+    public static BuildState read(File file, String configuration) {
+        BuildState state = read(file);
+        return (state != null && configuration.equals(state.configuration)) ? state : null;
+    }
+
+    /**
+     * @return the state stored in the file, whatever its configuration, or
+     * <code>null</code> when it does not exist or can not be read
+     */
+    public static BuildState read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return new ObjectMapper().readValue(file, BuildState.class);
+        } catch (IOException e) {
+            return null; // a corrupted state only costs a full generation
+        }
+    }
+
+    public void write(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        new ObjectMapper().writeValue(file, this);
+    }
+
+    /**
+     * @return the hex encoded SHA-1 of the class file or <code>null</code>
+     * when the class loader can not find it
+     */
+    public static String checksum(ClassLoader classLoader, String className) throws IOException {
+        InputStream in = classLoader.getResourceAsStream(className.replace('.', '/') + ".class");
+        if (in == null) {
+            return null;
+        }
+        try {
+            return Checksums.sha1(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public static class ControllerState {
+
+        /**
+         * Resources generated from the controller, one declaration file each.
+         */
+        public List<ResourceObject> resources;
+
+        /**
+         * Nicknames of the operations of the controller, sorted, once for
+         * each operation.
+         */
+        public List<String> nicknames;
+
+        /**
+         * Ids of the models the declarations refer to, when the models are
+         * written to a shared document.
+         */
+        public List<String> models;
+
+        /**
+         * Checksums of the class files the declarations depend on, by class
+         * name.
+         */
+        public Map<String, String> dependencies = new TreeMap<String, String>();
+
+        /**
+         * Types of the values of the maps the model properties hold, by the
+         * path of the property: <code>Order.attributes</code>, then
+         * <code>.items</code> for the elements of a collection and
+         * <code>.additionalProperties</code> for the values of a map. The
+         * 1.2 declarations have no place for them, the Swagger 2.0 document
+         * gets them back from here when the controller is not generated
+         * again.
+         */
+        public Map<String, DataTypeFields> mapValues;
+
+        public void keepMapValues(Map<String, ModelObject> models) {
+            Map<String, DataTypeFields> values = new TreeMap<String, DataTypeFields>();
+            for (ModelObject model : models.values()) {
+                if (model != null && model.properties != null) {
+                    for (Map.Entry<String, PropertyObject> property : model.properties.entrySet()) {
+                        keepMapValues(values, model.id + "." + property.getKey(), property.getValue());
+                    }
+                }
+            }
+            mapValues = values.isEmpty() ? null : values;
+        }
+
+        private static void keepMapValues(Map<String, DataTypeFields> values, String path, ItemsObject fields) {
+            if (fields == null) {
+                return;
+            }
+            if (fields.additionalProperties != null) {
+                values.put(path, fields.additionalProperties);
+                keepMapValues(values, path + ".additionalProperties", fields.additionalProperties);
+            }
+            if (fields instanceof DataTypeFields) {
+                keepMapValues(values, path + ".items", ((DataTypeFields) fields).items);
+            }
+        }
+
+        /**
+         * Sets the kept map values on the models read back from the 1.2
+         * declarations.
+         */
+        public void restoreMapValues(Map<String, ModelObject> models) {
+            if (mapValues == null || models == null) {
+                return;
+            }
+            // a path comes after the paths it extends
+            for (Map.Entry<String, DataTypeFields> values : mapValues.entrySet()) {
+                String[] names = values.getKey().split("\\.");
+                ModelObject model = models.get(names[0]);
+                ItemsObject fields = (model == null || model.properties == null) ? null : model.properties.get(names[1]);
+                for (int i = 2; i < names.length && fields != null; ++i) {
+                    fields = "items".equals(names[i]) ? ((DataTypeFields) fields).items : fields.additionalProperties;
+                }
+                if (fields != null) {
+                    fields.additionalProperties = values.getValue();
+                }
+            }
+        }
+
+        public void addDependencies(ClassLoader classLoader, Collection<String> classNames) throws IOException {
+            for (String className : classNames) {
+                dependencies.put(className, checksum(classLoader, className));
+            }
+        }
+
+        public boolean isUpToDate(ClassLoader classLoader) throws IOException {
+            for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+                String checksum = checksum(classLoader, dependency.getKey());
+                if (checksum == null || !checksum.equals(dependency.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.incremental;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The content hash, size and modification time of every generated document,
+ * by path, so servers can answer with strong ETags and 304 responses and
+ * clients can build cache busting URLs. A document keeps the time of the
+ * generation that changed its content.
+ */
+public class Manifest {
+
+    public Map<String, Document> documents = new TreeMap<String, Document>();
+
+    /**
+     * @return the manifest stored in the file or <code>null</code> when it
+     * does not exist or can not be read
+     */
+    public static Manifest read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return new ObjectMapper().readValue(file, Manifest.class);
+        } catch (IOException e) {
+            return null; // every document then gets the time of this generation
+        }
+    }
+
+    public byte[] toBytes() throws IOException {
+        return new ObjectMapper().writeValueAsBytes(this);
+    }
+
+    public void put(String path, byte[] content) {
+        put(path, Checksums.sha1(content), content.length);
+    }
+
+    public void put(String path, File file) throws IOException {
+        put(path, Checksums.sha1(file), file.length());
+    }
+
+    private void put(String path, String sha1, long size) {
+        Document document = new Document();
+        document.sha1 = sha1;
+        document.size = size;
+        documents.put(path, document);
+    }
+
+    /**
+     * Sets the modification time of the documents, the documents whose
+     * content did not change since the previous manifest keep their time.
+     *
+     * @param previous the previous manifest, may be <code>null</code>
+     */
+    public void stamp(Manifest previous, long now) {
+        for (Map.Entry<String, Document> entry : documents.entrySet()) {
+            Document document = entry.getValue();
+            Document before = (previous == null) ? null : previous.documents.get(entry.getKey());
+            boolean unchanged = before != null && document.sha1.equals(before.sha1) && before.lastModified > 0;
+            document.lastModified = unchanged ? before.lastModified : now;
+        }
+    }
+
+    public static class Document {
+
+        /**
+         * Hex encoded SHA-1 of the content.
+         */
+        public String sha1;
+
+        /**
+         * Size in bytes.
+         */
+        public long size;
+
+        /**
+         * Time the content was generated, in milliseconds since the epoch.
+         */
+        public long lastModified;
+
+    }
+
+}
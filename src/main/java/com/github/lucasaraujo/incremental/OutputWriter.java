@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.incremental;
+
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the generated files only when their content changed, so the tools
+ * watching the output directory (IDEs, hot redeploys) are not triggered by
+ * identical files. A file is written whole to a temporary file which is then
+ * renamed, readers never see it half written.
+ * <p/>
+ * Files may also get a <code>.gz</code> sibling compressed at the maximum
+ * level, for static handlers serving pre-compressed content.
+ */
+public class OutputWriter {
+
+    public static final String GZIP_SUFFIX = ".gz";
+
+    private final boolean gzip;
+    private int written;
+    private int skipped;
+
+    public OutputWriter() {
+        this(false);
+    }
+
+    /**
+     * @param gzip whether the files get a <code>.gz</code> sibling, stale
+     *             siblings are deleted when <code>false</code>
+     */
+    public OutputWriter(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Writes the file and its compressed sibling.
+     *
+     * @return <code>true</code> if the file was written, <code>false</code>
+     * if it already had the content
+     */
+    public boolean write(File file, byte[] content) throws IOException {
+        boolean changed = replace(file, content);
+        File compressed = new File(file.getParentFile(), file.getName() + GZIP_SUFFIX);
+        if (!gzip) {
+            compressed.delete();
+        } else if (changed || !compressed.isFile()) {
+            replace(compressed, gzip(content));
+        } else {
+            ++skipped;
+        }
+        return changed;
+    }
+
+    /**
+     * Deletes the file and its compressed sibling.
+     */
+    public void delete(File file) {
+        file.delete();
+        new File(file.getParentFile(), file.getName() + GZIP_SUFFIX).delete();
+    }
+
+    private boolean replace(File file, byte[] content) throws IOException {
+        if (isUnchanged(file, content)) {
+            ++skipped;
+            return false;
+        }
+        File temp = new File(file.getParentFile(), "." + file.getName() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            OutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(content);
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(file)) {
+                // the rename does not replace existing files on every platform
+                FileUtils.forceDelete(file);
+                if (!temp.renameTo(file)) {
+                    throw new IOException("Could not rename " + temp + " to " + file);
+                }
+            }
+        } finally {
+            temp.delete();
+        }
+        ++written;
+        return true;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4);
+        // the header carries no timestamp, the same content always compresses to the same bytes
+        GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        };
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean isUnchanged(File file, byte[] content) throws IOException {
+        if (!file.isFile() || file.length() != content.length) {
+            return false;
+        }
+        return Checksums.sha1(file).equals(Checksums.sha1(content));
+    }
+
+    /**
+     * @return the number of files written
+     */
+    public int written() {
+        return written;
+    }
+
+    /**
+     * @return the number of files left untouched because their content did
+     * not change
+     */
+    public int skipped() {
+        return skipped;
+    }
+
+}
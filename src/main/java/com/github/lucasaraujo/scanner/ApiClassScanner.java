@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import com.wordnik.swagger.annotations.Api;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds the classes annotated with {@link Api} on a set of classpath roots
+ * (directories and jars) by reading their class files. No class is defined
+ * during the scan, the caller loads only the returned class names.
+ * <p/>
+ * Every root is walked once, whatever the number of locations, and the roots
+ * are scanned concurrently on a bounded pool of threads. A class file that
+ * can not be read (truncated, or of a format newer than the inspector) is
+ * skipped and reported by {@link #skipped()}.
+ */
+public class ApiClassScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ClassFileInspector inspector = new ClassFileInspector(Api.class.getName());
+    private final String[] locations;
+    private final String[] locationPaths;
+    private final int threads;
+    private final JarScanCache jarScanCache;
+    private final List<String> skipped = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * @param locations package prefixes a class name must start with, all
+     *                  classes are considered when <code>null</code> or empty
+     */
+    public ApiClassScanner(String[] locations) {
+        this(locations, 1, null);
+    }
+
+    /**
+     * @param locations    package prefixes a class name must start with, all
+     *                     classes are considered when <code>null</code> or empty
+     * @param threads      maximum number of roots scanned at the same time,
+     *                     the number of available processors when lower than 1
+     * @param jarScanCache results of previous jar scans, may be <code>null</code>
+     */
+    public ApiClassScanner(String[] locations, int threads, JarScanCache jarScanCache) {
+        this.locations = locations == null ? new String[0] : locations;
+        this.locationPaths = new String[this.locations.length];
+        for (int i = 0; i < this.locations.length; ++i) {
+            locationPaths[i] = this.locations[i].replace('.', '/');
+        }
+        this.threads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+        this.jarScanCache = jarScanCache;
+    }
+
+    /**
+     * @return the sorted binary names of the {@link Api} annotated classes
+     */
+    public Set<String> scan(List<File> roots) throws IOException {
+        Set<String> classNames = scanAll(roots);
+        if (jarScanCache != null) {
+            jarScanCache.storeChecksums();
+        }
+        return classNames;
+    }
+
+    private Set<String> scanAll(List<File> roots) throws IOException {
+        Set<String> classNames = new TreeSet<String>();
+        if (threads == 1 || roots.size() < 2) {
+            for (File root : roots) {
+                classNames.addAll(scan(root));
+            }
+            return classNames;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, roots.size()));
+        try {
+            List<Future<Set<String>>> results = new ArrayList<Future<Set<String>>>(roots.size());
+            for (final File root : roots) {
+                results.add(executor.submit(new Callable<Set<String>>() {
+                    public Set<String> call() throws IOException {
+                        return scan(root);
+                    }
+                }));
+            }
+            for (Future<Set<String>> result : results) {
+                classNames.addAll(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Scanning interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Scanning classpath error", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return classNames;
+    }
+
+    /**
+     * @return the {@link Api} annotated classes found on a single root
+     */
+    Set<String> scan(File root) throws IOException {
+        Set<String> classNames = new TreeSet<String>();
+        if (root.isDirectory()) {
+            scanDirectory(root, "", classNames);
+        } else if (root.isFile() && jarScanCache != null) {
+            String checksum = jarScanCache.checksum(root);
+            String locationsKey = Arrays.toString(locations);
+            Set<String> cached = jarScanCache.get(checksum, locationsKey);
+            if (cached != null) {
+                return cached;
+            }
+            scanJar(root, classNames);
+            jarScanCache.put(checksum, locationsKey, classNames);
+        } else if (root.isFile()) {
+            scanJar(root, classNames);
+        }
+        return classNames;
+    }
+
+    private void scanDirectory(File directory, String resourcePrefix, Set<String> classNames) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String resourceName = resourcePrefix + file.getName();
+            if (file.isDirectory()) {
+                if (isCandidateDirectory(resourceName)) {
+                    scanDirectory(file, resourceName + "/", classNames);
+                }
+            } else if (isCandidate(resourceName)) {
+                InputStream in = new BufferedInputStream(new FileInputStream(file));
+                try {
+                    addIfAnnotated(in, file.getPath(), classNames);
+                } finally {
+                    in.close();
+                }
+            }
+        }
+    }
+
+    private void scanJar(File jar, Set<String> classNames) throws IOException {
+        ZipFile zipFile = new ZipFile(jar);
+        try {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && isCandidate(entry.getName())) {
+                    InputStream in = new BufferedInputStream(zipFile.getInputStream(entry));
+                    try {
+                        addIfAnnotated(in, jar.getPath() + "!/" + entry.getName(), classNames);
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private void addIfAnnotated(InputStream in, String path, Set<String> classNames) {
+        String className;
+        try {
+            className = inspector.annotatedClassName(in);
+        } catch (IOException e) {
+            skipped.add(String.format("Skipped unreadable class file %s: %s", path, e));
+            return;
+        } catch (RuntimeException e) { // indexes out of the constant pool
+            skipped.add(String.format("Skipped invalid class file %s: %s", path, e));
+            return;
+        }
+        if (className != null) {
+            classNames.add(className);
+        }
+    }
+
+    /**
+     * @return a message for each class file skipped by the scans, sorted
+     */
+    public List<String> skipped() {
+        List<String> messages = new ArrayList<String>(skipped);
+        Collections.sort(messages);
+        return messages;
+    }
+
+    /**
+     * Checks a directory against the configured locations, so directories
+     * that can not hold a class inside of them are never listed.
+     *
+     * @param resourceName the path of the directory relative to its root,
+     *                     without the trailing slash
+     */
+    boolean isCandidateDirectory(String resourceName) {
+        if (locations.length == 0) {
+            return true;
+        }
+        String directory = resourceName + "/";
+        for (String locationPath : locationPaths) {
+            // either the location is inside the directory or the directory inside the location
+            if (locationPath.startsWith(directory) || resourceName.startsWith(locationPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the resource name against the configured locations, so class
+     * files outside of them are never opened.
+     */
+    boolean isCandidate(String resourceName) {
+        if (!resourceName.endsWith(CLASS_SUFFIX)) {
+            return false;
+        }
+        if (locations.length == 0) {
+            return true;
+        }
+        String className = resourceName.substring(0, resourceName.length() - CLASS_SUFFIX.length()).replace('/', '.');
+        for (String location : locations) {
+            if (className.startsWith(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
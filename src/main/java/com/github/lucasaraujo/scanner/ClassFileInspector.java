@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the constant pool and the class level attributes of a class file
+ * without defining the class. It is used to find out whether a class carries
+ * a given runtime visible annotation before any class loader is involved.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html">The class File Format</a>
+ */
+public class ClassFileInspector {
+
+    static final int MAGIC = 0xCAFEBABE;
+
+    static final int CONSTANT_UTF8 = 1;
+    static final int CONSTANT_INTEGER = 3;
+    static final int CONSTANT_FLOAT = 4;
+    static final int CONSTANT_LONG = 5;
+    static final int CONSTANT_DOUBLE = 6;
+    static final int CONSTANT_CLASS = 7;
+    static final int CONSTANT_STRING = 8;
+    static final int CONSTANT_FIELD_REF = 9;
+    static final int CONSTANT_METHOD_REF = 10;
+    static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    static final int CONSTANT_NAME_AND_TYPE = 12;
+    static final int CONSTANT_METHOD_HANDLE = 15;
+    static final int CONSTANT_METHOD_TYPE = 16;
+    static final int CONSTANT_DYNAMIC = 17;
+    static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    static final int CONSTANT_MODULE = 19;
+    static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final String annotationDescriptor;
+
+    /**
+     * @param annotationClassName binary name of the annotation to look for,
+     *                            e.g. {@code com.wordnik.swagger.annotations.Api}
+     */
+    public ClassFileInspector(String annotationClassName) {
+        this.annotationDescriptor = "L" + annotationClassName.replace('.', '/') + ";";
+    }
+
+    /**
+     * @param in the class file content, it is not closed by this method
+     * @return the binary name of the class if it is annotated with the
+     * inspected annotation, <code>null</code> otherwise
+     */
+    public String annotatedClassName(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            return null;
+        }
+        data.readUnsignedShort(); // minor_version
+        data.readUnsignedShort(); // major_version
+
+        ConstantPool constantPool = new ConstantPool(data);
+        if (!constantPool.containsUtf8(annotationDescriptor)) {
+            // the descriptor of every annotation present on the class lives in the constant pool
+            return null;
+        }
+        String[] utf8 = constantPool.utf8;
+
+        skipFully(data, 2); // access_flags
+        int thisClass = data.readUnsignedShort();
+        skipFully(data, 2); // super_class
+        skipFully(data, 2 * data.readUnsignedShort()); // interfaces
+        skipMembers(data); // fields
+        skipMembers(data); // methods
+
+        int attributesCount = data.readUnsignedShort();
+        for (int i = 0; i < attributesCount; ++i) {
+            String name = utf8[data.readUnsignedShort()];
+            int length = data.readInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                int annotationsCount = data.readUnsignedShort();
+                for (int j = 0; j < annotationsCount; ++j) {
+                    if (annotationDescriptor.equals(utf8[data.readUnsignedShort()])) {
+                        return constantPool.className(thisClass).replace('/', '.');
+                    }
+                    skipElementValuePairs(data);
+                }
+            } else {
+                skipFully(data, length);
+            }
+        }
+        return null;
+    }
+
+    static void readHeader(DataInputStream data) throws IOException {
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        data.readUnsignedShort(); // minor_version
+        data.readUnsignedShort(); // major_version
+    }
+
+    static void skipMembers(DataInputStream data) throws IOException {
+        int count = data.readUnsignedShort();
+        for (int i = 0; i < count; ++i) {
+            skipFully(data, 6); // access_flags, name_index, descriptor_index
+            skipAttributes(data);
+        }
+    }
+
+    static void skipAttributes(DataInputStream data) throws IOException {
+        int count = data.readUnsignedShort();
+        for (int i = 0; i < count; ++i) {
+            skipFully(data, 2); // attribute_name_index
+            skipFully(data, data.readInt());
+        }
+    }
+
+    static void skipFully(DataInputStream data, int length) throws IOException {
+        while (length > 0) {
+            int skipped = data.skipBytes(length);
+            if (skipped <= 0) {
+                throw new IOException("Truncated class file");
+            }
+            length -= skipped;
+        }
+    }
+
+    /**
+     * The UTF-8 and class entries of a constant pool, the other entries are
+     * skipped.
+     */
+    static class ConstantPool {
+
+        final String[] utf8;
+        final int[] classNameIndex;
+
+        ConstantPool(DataInputStream data) throws IOException {
+            int constantPoolCount = data.readUnsignedShort();
+            utf8 = new String[constantPoolCount];
+            classNameIndex = new int[constantPoolCount];
+            for (int i = 1; i < constantPoolCount; ++i) {
+                int tag = data.readUnsignedByte();
+                switch (tag) {
+                    case CONSTANT_UTF8:
+                        utf8[i] = data.readUTF();
+                        break;
+                    case CONSTANT_CLASS:
+                        classNameIndex[i] = data.readUnsignedShort();
+                        break;
+                    case CONSTANT_STRING:
+                    case CONSTANT_METHOD_TYPE:
+                    case CONSTANT_MODULE:
+                    case CONSTANT_PACKAGE:
+                        skipFully(data, 2);
+                        break;
+                    case CONSTANT_METHOD_HANDLE:
+                        skipFully(data, 3);
+                        break;
+                    case CONSTANT_INTEGER:
+                    case CONSTANT_FLOAT:
+                    case CONSTANT_FIELD_REF:
+                    case CONSTANT_METHOD_REF:
+                    case CONSTANT_INTERFACE_METHOD_REF:
+                    case CONSTANT_NAME_AND_TYPE:
+                    case CONSTANT_DYNAMIC:
+                    case CONSTANT_INVOKE_DYNAMIC:
+                        skipFully(data, 4);
+                        break;
+                    case CONSTANT_LONG:
+                    case CONSTANT_DOUBLE:
+                        skipFully(data, 8);
+                        ++i; // 8-byte constants take two entries
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+        }
+
+        boolean containsUtf8(String value) {
+            for (String entry : utf8) {
+                if (value.equals(entry)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the internal name of a class entry
+         */
+        String className(int index) {
+            return utf8[classNameIndex[index]];
+        }
+
+    }
+
+    private static void skipElementValuePairs(DataInputStream data) throws IOException {
+        int pairs = data.readUnsignedShort();
+        for (int i = 0; i < pairs; ++i) {
+            skipFully(data, 2); // element_name_index
+            skipElementValue(data);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream data) throws IOException {
+        int tag = data.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                skipFully(data, 4);
+                break;
+            case '@':
+                skipFully(data, 2);
+                skipElementValuePairs(data);
+                break;
+            case '[':
+                int values = data.readUnsignedShort();
+                for (int i = 0; i < values; ++i) {
+                    skipElementValue(data);
+                }
+                break;
+            default: // B C D F I J S Z s c
+                skipFully(data, 2);
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import com.github.lucasaraujo.incremental.Checksums;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Results of jar scans, keyed by the checksum of the jar content and the
+ * scanned locations, so a jar shared by several modules is scanned once.
+ * <p/>
+ * When a directory is given the results are also stored on disk, one file
+ * per jar holding the names of its {@link com.wordnik.swagger.annotations.Api}
+ * classes (an empty file for the jars without any), so a released jar is
+ * scanned by the first build only. The checksums are stored there too, by
+ * path, size and modification time, so the unchanged jars are not hashed
+ * again by the next builds. The disk store is best effort: an entry that can
+ * not be read or written is scanned again.
+ */
+public class JarScanCache {
+
+    private static final String ENCODING = "UTF-8";
+
+    private static final String CHECKSUMS_FILE = "checksums";
+
+    private final ConcurrentMap<String, JarChecksum> checksums = new ConcurrentHashMap<String, JarChecksum>();
+    private final ConcurrentMap<String, Set<String>> scans = new ConcurrentHashMap<String, Set<String>>();
+    private final File directory;
+    private volatile boolean checksumsChanged;
+
+    public JarScanCache() {
+        this(null);
+    }
+
+    /**
+     * @param directory where the results are stored between builds, they are
+     *                  kept in memory only when <code>null</code>
+     */
+    public JarScanCache(File directory) {
+        this.directory = directory;
+        if (directory != null) {
+            readChecksums(new File(directory, CHECKSUMS_FILE));
+        }
+    }
+
+    /**
+     * @return the checksum of the jar, computed once for each path, size and
+     * modification time
+     */
+    public String checksum(File jar) throws IOException {
+        String path = jar.getAbsolutePath();
+        long size = jar.length();
+        long lastModified = jar.lastModified();
+        JarChecksum checksum = checksums.get(path);
+        if (checksum == null || checksum.size != size || checksum.lastModified != lastModified) {
+            checksum = new JarChecksum(size, lastModified, Checksums.sha1(jar));
+            checksums.put(path, checksum);
+            checksumsChanged = true;
+        }
+        return checksum.sha1;
+    }
+
+    /**
+     * Stores the checksums computed since the cache was created, with the
+     * previous ones whose jars did not change.
+     */
+    public void storeChecksums() {
+        if (directory == null || !checksumsChanged) {
+            return;
+        }
+        checksumsChanged = false;
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, JarChecksum> entry : new TreeMap<String, JarChecksum>(checksums).entrySet()) {
+            File jar = new File(entry.getKey());
+            JarChecksum checksum = entry.getValue();
+            if (jar.length() == checksum.size && jar.lastModified() == checksum.lastModified) {
+                content.append(checksum.size).append(' ').append(checksum.lastModified).append(' ')
+                        .append(checksum.sha1).append(' ').append(entry.getKey()).append('\n');
+            }
+        }
+        write(new File(directory, CHECKSUMS_FILE), content.toString());
+    }
+
+    /**
+     * @return the {@link com.wordnik.swagger.annotations.Api} classes found
+     * by a previous scan or <code>null</code>
+     */
+    public Set<String> get(String checksum, String locations) {
+        String key = checksum + locations;
+        Set<String> classNames = scans.get(key);
+        if (classNames == null && directory != null) {
+            classNames = read(entry(checksum, locations));
+            if (classNames != null) {
+                scans.putIfAbsent(key, classNames);
+            }
+        }
+        return classNames;
+    }
+
+    public void put(String checksum, String locations, Set<String> classNames) {
+        Set<String> entry = Collections.unmodifiableSet(new TreeSet<String>(classNames));
+        scans.put(checksum + locations, entry);
+        if (directory != null) {
+            StringBuilder content = new StringBuilder();
+            for (String className : entry) {
+                content.append(className).append('\n');
+            }
+            write(entry(checksum, locations), content.toString());
+        }
+    }
+
+    public int size() {
+        return scans.size();
+    }
+
+    private File entry(String checksum, String locations) {
+        try {
+            String locationsChecksum = Checksums.sha1(new ByteArrayInputStream(locations.getBytes(ENCODING)));
+            return new File(new File(directory, locationsChecksum.substring(0, 8)), checksum);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Set<String> read(File entry) {
+        if (!entry.isFile()) {
+            return null;
+        }
+        try {
+            Set<String> classNames = new TreeSet<String>();
+            for (String line : FileUtils.fileRead(entry, ENCODING).split("\n")) {
+                if (line.length() > 0) {
+                    classNames.add(line);
+                }
+            }
+            return Collections.unmodifiableSet(classNames);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lines of size, modification time, checksum and path, a corrupt file is
+     * ignored as a whole.
+     */
+    private void readChecksums(File file) {
+        if (!file.isFile()) {
+            return;
+        }
+        try {
+            for (String line : FileUtils.fileRead(file, ENCODING).split("\n")) {
+                String[] fields = line.split(" ", 4);
+                if (fields.length == 4) {
+                    checksums.put(fields[3], new JarChecksum(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]));
+                }
+            }
+        } catch (NumberFormatException e) {
+            checksums.clear();
+        } catch (IOException e) {
+            checksums.clear();
+        }
+    }
+
+    private static void write(File entry, String content) {
+        // concurrent builds may store the same entry, the rename makes the last one win whole
+        File temp = null;
+        try {
+            entry.getParentFile().mkdirs();
+            temp = File.createTempFile(entry.getName(), ".tmp", entry.getParentFile());
+            FileUtils.fileWrite(temp, ENCODING, content);
+            if (!temp.renameTo(entry)) {
+                entry.delete();
+                temp.renameTo(entry);
+            }
+        } catch (IOException e) {
+            // the jar is scanned again by the next build
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    private static final class JarChecksum {
+
+        final long size;
+        final long lastModified;
+        final String sha1;
+
+        JarChecksum(long size, long lastModified, String sha1) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha1 = sha1;
+        }
+
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Reads the parameter names of methods from their class file: the
+ * <code>MethodParameters</code> attribute of classes compiled with
+ * <code>-parameters</code>, the <code>LocalVariableTable</code> of classes
+ * compiled with debug information otherwise.
+ * <p/>
+ * Each class file is read once, the names of all of its methods are kept
+ * while the class is loaded. It is safe to use from several threads.
+ */
+public class ParameterNames {
+
+    private static final String CODE = "Code";
+    private static final String LOCAL_VARIABLE_TABLE = "LocalVariableTable";
+    private static final String METHOD_PARAMETERS = "MethodParameters";
+
+    /**
+     * Parameter names by method name and descriptor, by class. The names hold
+     * no reference to the classes, so they are released with them.
+     */
+    private static final Map<Class<?>, Map<String, String[]>> TABLES = new WeakHashMap<Class<?>, Map<String, String[]>>();
+
+    private ParameterNames() {
+    }
+
+    /**
+     * @return the parameter names of the method, <code>null</code> if its
+     * class file has neither of the attributes
+     */
+    public static String[] lookup(Method method) throws IOException {
+        if (method.getParameterTypes().length == 0) {
+            return new String[0];
+        }
+        String[] names = table(method.getDeclaringClass()).get(method.getName() + descriptor(method));
+        return (names == null) ? null : names.clone();
+    }
+
+    private static Map<String, String[]> table(Class<?> clazz) throws IOException {
+        synchronized (TABLES) {
+            Map<String, String[]> table = TABLES.get(clazz);
+            if (table != null) {
+                return table;
+            }
+        }
+        // read outside of the lock, two threads may read the same class once each
+        Map<String, String[]> table = read(clazz);
+        synchronized (TABLES) {
+            TABLES.put(clazz, table);
+        }
+        return table;
+    }
+
+    private static Map<String, String[]> read(Class<?> clazz) throws IOException {
+        String resourceName = "/" + clazz.getName().replace('.', '/') + ".class";
+        InputStream in = clazz.getResourceAsStream(resourceName);
+        if (in == null) {
+            throw new IOException("Could not find the class file of " + clazz.getName());
+        }
+        try {
+            return read(new DataInputStream(new BufferedInputStream(in)));
+        } finally {
+            in.close();
+        }
+    }
+
+    static Map<String, String[]> read(DataInputStream data) throws IOException {
+        ClassFileInspector.readHeader(data);
+        ClassFileInspector.ConstantPool constantPool = new ClassFileInspector.ConstantPool(data);
+        String[] utf8 = constantPool.utf8;
+        ClassFileInspector.skipFully(data, 6); // access_flags, this_class, super_class
+        ClassFileInspector.skipFully(data, 2 * data.readUnsignedShort()); // interfaces
+        ClassFileInspector.skipMembers(data); // fields
+
+        Map<String, String[]> table = new HashMap<String, String[]>();
+        int methodsCount = data.readUnsignedShort();
+        for (int i = 0; i < methodsCount; ++i) {
+            int accessFlags = data.readUnsignedShort();
+            String name = utf8[data.readUnsignedShort()];
+            String descriptor = utf8[data.readUnsignedShort()];
+            int[] slots = parameterSlots(descriptor, Modifier.isStatic(accessFlags));
+
+            String[] parameters = null;
+            String[] locals = null;
+            int attributesCount = data.readUnsignedShort();
+            for (int j = 0; j < attributesCount; ++j) {
+                String attributeName = utf8[data.readUnsignedShort()];
+                int length = data.readInt();
+                if (METHOD_PARAMETERS.equals(attributeName)) {
+                    parameters = readMethodParameters(data, utf8);
+                } else if (CODE.equals(attributeName)) {
+                    locals = readCode(data, utf8, slots);
+                } else {
+                    ClassFileInspector.skipFully(data, length);
+                }
+            }
+
+            if (parameters != null && parameters.length == slots.length && !Arrays.asList(parameters).contains(null)) {
+                table.put(name + descriptor, parameters);
+            } else if (locals != null) {
+                table.put(name + descriptor, locals);
+            }
+        }
+        return Collections.unmodifiableMap(table);
+    }
+
+    private static String[] readMethodParameters(DataInputStream data, String[] utf8) throws IOException {
+        String[] names = new String[data.readUnsignedByte()];
+        for (int i = 0; i < names.length; ++i) {
+            int nameIndex = data.readUnsignedShort();
+            data.readUnsignedShort(); // access_flags
+            names[i] = (nameIndex == 0) ? null : utf8[nameIndex];
+        }
+        return names;
+    }
+
+    /**
+     * @return the names of the parameters found in the local variable table
+     * of the code, <code>null</code> if any of them is missing
+     */
+    private static String[] readCode(DataInputStream data, String[] utf8, int[] slots) throws IOException {
+        ClassFileInspector.skipFully(data, 4); // max_stack, max_locals
+        ClassFileInspector.skipFully(data, data.readInt()); // code
+        ClassFileInspector.skipFully(data, 8 * data.readUnsignedShort()); // exception_table
+
+        String[] names = null;
+        int attributesCount = data.readUnsignedShort();
+        for (int i = 0; i < attributesCount; ++i) {
+            String attributeName = utf8[data.readUnsignedShort()];
+            int length = data.readInt();
+            if (!LOCAL_VARIABLE_TABLE.equals(attributeName)) {
+                ClassFileInspector.skipFully(data, length);
+                continue;
+            }
+            if (names == null) {
+                names = new String[slots.length];
+            }
+            int entries = data.readUnsignedShort();
+            for (int j = 0; j < entries; ++j) {
+                int startPc = data.readUnsignedShort();
+                data.readUnsignedShort(); // length
+                String name = utf8[data.readUnsignedShort()];
+                data.readUnsignedShort(); // descriptor_index
+                int index = data.readUnsignedShort();
+                // parameters are the variables living from the first instruction in the parameter slots
+                for (int k = 0; startPc == 0 && k < slots.length; ++k) {
+                    if (slots[k] == index) {
+                        names[k] = name;
+                    }
+                }
+            }
+        }
+        return (names == null || Arrays.asList(names).contains(null)) ? null : names;
+    }
+
+    /**
+     * @return the local variable slot of each parameter of a method descriptor
+     */
+    static int[] parameterSlots(String descriptor, boolean isStatic) {
+        int[] slots = new int[descriptor.length()];
+        int count = 0;
+        int slot = isStatic ? 0 : 1;
+        for (int i = 1; descriptor.charAt(i) != ')'; ++i) {
+            slots[count++] = slot;
+            boolean array = false;
+            while (descriptor.charAt(i) == '[') {
+                array = true;
+                ++i;
+            }
+            char type = descriptor.charAt(i);
+            if (type == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+            slot += (!array && (type == 'J' || type == 'D')) ? 2 : 1;
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * @return the JVM descriptor of the method, e.g. <code>(ILjava/lang/String;)V</code>
+     */
+    static String descriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> type : method.getParameterTypes()) {
+            appendDescriptor(descriptor, type);
+        }
+        descriptor.append(')');
+        appendDescriptor(descriptor, method.getReturnType());
+        return descriptor.toString();
+    }
+
+    private static void appendDescriptor(StringBuilder descriptor, Class<?> type) {
+        while (type.isArray()) {
+            descriptor.append('[');
+            type = type.getComponentType();
+        }
+        if (type == int.class) {
+            descriptor.append('I');
+        } else if (type == long.class) {
+            descriptor.append('J');
+        } else if (type == boolean.class) {
+            descriptor.append('Z');
+        } else if (type == byte.class) {
+            descriptor.append('B');
+        } else if (type == char.class) {
+            descriptor.append('C');
+        } else if (type == short.class) {
+            descriptor.append('S');
+        } else if (type == float.class) {
+            descriptor.append('F');
+        } else if (type == double.class) {
+            descriptor.append('D');
+        } else if (type == void.class) {
+            descriptor.append('V');
+        } else {
+            descriptor.append('L').append(type.getName().replace('.', '/')).append(';');
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import org.apache.maven.artifact.Artifact;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Selects which entries of the project classpath are scanned for
+ * {@link com.wordnik.swagger.annotations.Api} classes.
+ */
+public class ScanScope {
+
+    private final File outputDirectory;
+    private final boolean outputOnly;
+    private final List<Pattern> includes;
+    private final List<Pattern> excludes;
+
+    /**
+     * @param outputDirectory the project output directory, always scanned
+     * @param outputOnly      scan the project output directory only
+     * @param includes        <code>groupId:artifactId</code> globs of the
+     *                        dependencies to scan, all dependencies are
+     *                        scanned when <code>null</code> or empty
+     * @param excludes        globs of the classpath entries not to scan,
+     *                        matched against the file name and the
+     *                        <code>groupId:artifactId</code> of the dependency
+     */
+    public ScanScope(File outputDirectory, boolean outputOnly, String[] includes, String[] excludes) {
+        this.outputDirectory = outputDirectory.getAbsoluteFile();
+        this.outputOnly = outputOnly;
+        this.includes = globs(includes);
+        this.excludes = globs(excludes);
+    }
+
+    /**
+     * @return the classpath entries in scope, in classpath order
+     */
+    public List<File> roots(List<String> classpathElements, Collection<Artifact> artifacts) {
+        Map<File, Artifact> artifactsByFile = new HashMap<File, Artifact>();
+        if (artifacts != null) {
+            for (Artifact artifact : artifacts) {
+                if (artifact.getFile() != null) {
+                    artifactsByFile.put(artifact.getFile().getAbsoluteFile(), artifact);
+                }
+            }
+        }
+
+        List<File> roots = new ArrayList<File>(classpathElements.size());
+        for (String element : classpathElements) {
+            File file = new File(element).getAbsoluteFile();
+            if (file.equals(outputDirectory)) {
+                roots.add(file);
+            } else if (!outputOnly && isIncluded(file, artifactsByFile.get(file))) {
+                roots.add(file);
+            }
+        }
+        return roots;
+    }
+
+    private boolean isIncluded(File file, Artifact artifact) {
+        String coordinates = (artifact == null) ? null : artifact.getGroupId() + ":" + artifact.getArtifactId();
+        if (!includes.isEmpty() && (coordinates == null || !matches(includes, coordinates))) {
+            return false;
+        }
+        return !matches(excludes, file.getName()) && (coordinates == null || !matches(excludes, coordinates));
+    }
+
+    private static boolean matches(List<Pattern> patterns, String value) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(value).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static List<Pattern> globs(String[] globs) {
+        if (globs == null) {
+            return Collections.emptyList();
+        }
+        List<Pattern> patterns = new ArrayList<Pattern>(globs.length);
+        for (String glob : globs) {
+            patterns.add(glob(glob.trim()));
+        }
+        return patterns;
+    }
+
+    /**
+     * Converts a glob where <code>*</code> matches any sequence of characters
+     * and <code>?</code> any single character.
+     */
+    static Pattern glob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); ++i) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+}
@@ -19,16 +19,14 @@
 
 package com.github.lucasaraujo.swagger.builder;
 
-import br.com.caelum.vraptor.Path;
+import com.github.lucasaraujo.swagger.builder.ControllerMetadata.OperationMetadata;
 import com.github.lucasaraujo.swagger.model.ApiDeclaration;
 import com.github.lucasaraujo.swagger.model.ApiObject;
 import com.github.lucasaraujo.swagger.model.ModelObject;
 import com.github.lucasaraujo.swagger.model.OperationObject;
 import com.wordnik.swagger.annotations.Api;
-import com.wordnik.swagger.annotations.ApiOperation;
 import org.apache.maven.plugin.MojoExecutionException;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,33 +34,39 @@ import java.util.Map;
 public class ApiDeclarationBuilder extends BaseBuilder {
 
     public static ApiDeclaration buildOf(Class<?> clazz) throws MojoExecutionException {
-        Api api = clazz.getAnnotation(Api.class);
-        Path aPath = clazz.getAnnotation(Path.class);
+        return buildOf(clazz, new DeclarationContext());
+    }
+
+    public static ApiDeclaration buildOf(Class<?> clazz, DeclarationContext context) throws MojoExecutionException {
+        return buildOf(ControllerMetadata.of(new ReflectionSource(context.types).type(clazz), new PathTemplates()), context);
+    }
 
-        String resourcePath = (aPath == null) ? "/" : ensureAbsolutePath(aPath.value()[0]);
-        ApiDeclaration apiDeclaration = new ApiDeclaration();
+    /**
+     * Builds the declaration shared by every resource path of the controller,
+     * only its resource path is left to the caller.
+     */
+    public static ApiDeclaration buildOf(ControllerMetadata controller, DeclarationContext context) throws MojoExecutionException {
+        Api api = controller.api;
+        ApiDeclaration apiDeclaration = context.apiDeclaration;
         apiDeclaration.apis = new ArrayList<ApiObject>();
         apiDeclaration.models = new HashMap<String, ModelObject>();
         apiDeclaration.produces = splitMineTypes(api.produces());
         apiDeclaration.consumes = splitMineTypes(api.consumes());
-        Map<String, ApiObject> pathToApiObject = new HashMap<String, ApiObject>();
+        Map<PathTemplate, ApiObject> pathToApiObject = new HashMap<PathTemplate, ApiObject>();
+        context.addController(controller.type);
 
-        for (Method method : clazz.getMethods()) {
-            ApiOperation operation = method.getAnnotation(ApiOperation.class);
-            if (operation != null) {
-                for (String path : methodPaths(method)) {
-                    path = ensureAbsolutePath(path);
-                    ApiObject apiObject = pathToApiObject.get(path);
-                    if (apiObject == null) {
-                        apiObject = new ApiObject();
-                        apiObject.path = ensureAbsolutePath(joinPaths(resourcePath, path));
-                        apiObject.description = api.description();
-                        apiObject.operations = new ArrayList<OperationObject>();
-                        pathToApiObject.put(path, apiObject);
-                        apiDeclaration.apis.add(apiObject);
-                    }
-                    apiObject.operations.add(OperationObjectBuilder.buildOf(path, operation, method, apiDeclaration));
+        for (OperationMetadata operation : controller.operations) {
+            for (PathTemplate path : operation.paths) {
+                ApiObject apiObject = pathToApiObject.get(path);
+                if (apiObject == null) {
+                    apiObject = new ApiObject();
+                    apiObject.path = controller.resourcePath.join(path).absolute().toString();
+                    apiObject.description = api.description();
+                    apiObject.operations = new ArrayList<OperationObject>();
+                    pathToApiObject.put(path, apiObject);
+                    apiDeclaration.apis.add(apiObject);
                 }
+                apiObject.operations.add(OperationObjectBuilder.buildOf(path, operation, context));
             }
         }
         return apiDeclaration;
@@ -20,11 +20,10 @@
 package com.github.lucasaraujo.swagger.builder;
 
 import br.com.caelum.vraptor.*;
+import com.github.lucasaraujo.swagger.builder.TypeResolver.ResolvedType;
 import com.github.lucasaraujo.swagger.model.*;
-import com.google.common.base.Joiner;
 import com.wordnik.swagger.annotations.ApiOperation;
 import org.apache.maven.plugin.MojoExecutionException;
-import org.joda.time.DateTime;
 
 import java.lang.reflect.*;
 import java.util.*;
@@ -32,27 +31,23 @@ import java.util.*;
 public class BaseBuilder {
 
     static String formatAbsolutePath(String path) {
-        path = ensureAbsolutePath(path);
-        return ensureOneLevelAbsolutePath(path);
+        return PathTemplate.of(path).absolute().oneLevel().toString();
     }
 
     static String ensureAbsolutePath(String path) {
-        return path.replaceFirst("(^[^/].?)", "/$1");
+        return PathTemplate.of(path).absolute().toString();
     }
 
     static String ensureOneLevelAbsolutePath(String path) {
-        path = path.replaceAll("(.)\\W", "$1_");
-        return path.replaceFirst("^/$", "/_");
+        return PathTemplate.of(path).oneLevel().toString();
     }
 
     static String joinPaths(String first, String second) {
-        first = first.replaceFirst("/$", "");
-        second = ensureAbsolutePath(second);
-        return first + second;
+        return PathTemplate.of(first).join(PathTemplate.of(second)).toString();
     }
 
-    static String[] methodPaths(Method method) {
-        String[] methodName = new String[]{method.getName()};
+    static String[] methodPaths(SourceMethod method) {
+        String[] methodName = new String[]{method.name()};
         Get get = method.getAnnotation(Get.class);
         if (get != null) {
             String[] value = get.value();
@@ -81,7 +76,7 @@ public class BaseBuilder {
         return methodName;
     }
 
-    static String httpMethod(ApiOperation apiOperation, Method method) throws MojoExecutionException {
+    static String httpMethod(ApiOperation apiOperation, SourceMethod method) throws MojoExecutionException {
         if (apiOperation != null && apiOperation.httpMethod() != null && apiOperation.httpMethod().length() > 0) {
             return apiOperation.httpMethod().toUpperCase();
         }
@@ -105,207 +100,98 @@ public class BaseBuilder {
         if (delete != null) {
             return "DELETE";
         }
-        throw new MojoExecutionException(String.format("Could not determinate HTTP method for %s#%s(%s)",
-                method.getClass().getName(), method.getName(), Joiner.on(", ").join(method.getParameterTypes())));
+        throw new MojoExecutionException(String.format("Could not determinate HTTP method for %s", method));
     }
 
-    static String nicknameFromMethod(Method method) {
-        for (Method classMethod : method.getClass().getMethods()) {
-            if (classMethod.getName().equals(method.getName()) && !classMethod.equals(method)) {
-                List<String> names = new ArrayList<String>();
-                for (Class<?> type : method.getParameterTypes()) {
-                    names.add(type.getSimpleName());
-                }
-                return method.getName() + "_" + Joiner.on("_").join(names);
-            }
+    /**
+     * @param overloaded        whether other operations of the controller
+     *                          have the same method name
+     * @param parameterTypeNames simple names of the parameter types
+     * @return the method name, followed by the parameter types of overloaded
+     * methods, array types being suffixed by <code>_array</code> instead of
+     * the brackets nicknames can not contain
+     */
+    static String nickname(String methodName, boolean overloaded, List<String> parameterTypeNames) {
+        if (!overloaded) {
+            return methodName;
+        }
+        StringBuilder nickname = new StringBuilder(methodName);
+        for (String parameterTypeName : parameterTypeNames) {
+            nickname.append('_').append(parameterTypeName.replace("[]", "_array"));
         }
-        return method.getName();
+        return nickname.toString();
     }
 
-    static void setDataTypeFields(DataTypeFields dataTypeFields, Class<?> objClass, ApiDeclaration apiDeclaration) {
-        if (objClass.isArray()) {
-            Class<?> componentType = objClass.getComponentType();
-            setDataTypeFields(dataTypeFields, componentType, true, false, apiDeclaration);
-        } else if (objClass.isAssignableFrom(Set.class)) {
-            setDataTypeFields(dataTypeFields, Object.class, true, true, apiDeclaration);
-        } else if (objClass.isAssignableFrom(Collection.class)) {
-            setDataTypeFields(dataTypeFields, Object.class, true, false, apiDeclaration);
+    static void setDataTypeFields(DataTypeFields dataTypeFields, SourceType type, DeclarationContext context) {
+        if (type.componentType() != null) {
+            setDataTypeFields(dataTypeFields, type.componentType(), true, false, context);
+        } else if (type.isAssignableFrom(Set.class)) {
+            setDataTypeFields(dataTypeFields, type.typeOf(Object.class), true, true, context);
+        } else if (type.isAssignableFrom(Collection.class)) {
+            setDataTypeFields(dataTypeFields, type.typeOf(Object.class), true, false, context);
         } else {
-            setDataTypeFields(dataTypeFields, objClass, false, false, apiDeclaration);
+            setDataTypeFields(dataTypeFields, type, false, false, context);
         }
     }
 
     static Class<?>[] fieldGenericTypesForClass(Field field, Class<?> clazz) {
-        Type searchType = field.getGenericType();
-        if (clazz == null && searchType instanceof GenericArrayType) {
-            Type type = ((GenericArrayType) searchType).getGenericComponentType();
-            Class<?> componentClass = (type instanceof Class<?>) ? (Class<?>) type : Object.class;
-            return new Class<?>[]{componentClass};
-        }
-        if (clazz == null && searchType instanceof Class<?> && ((Class<?>) searchType).isArray()) {
-            return new Class<?>[]{((Class<?>) searchType).getComponentType()};
-        }
-
-        Class<?> searchClass = classForType(searchType);
-        Map<Type, Map<String, Class<?>>> genericsInfo = new HashMap<Type, Map<String, Class<?>>>();
-
-        while (searchClass != null) {
-            Class<?>[] arguments = BaseBuilder.typeArguments(searchType, genericsInfo);
-            if (searchClass.equals(clazz)) {
-                return arguments;
-            }
-
-            for (Type genericInterface : searchClass.getGenericInterfaces()) {
-                arguments = BaseBuilder.typeArguments(genericInterface, genericsInfo);
-                Class<?> interfaceClass = classForType(genericInterface);
-                if (clazz != null && clazz.equals(interfaceClass)) {
-                    return arguments;
-                }
-                for (Type superInterface : interfaceClass.getGenericInterfaces()) {
-                    arguments = BaseBuilder.typeArguments(superInterface, genericsInfo);
-                    Class<?> superClass = classForType(superInterface);
-                    if (clazz != null && clazz.equals(superClass)) {
-                        return arguments;
-                    }
-                }
-            }
-            searchType = searchClass.getGenericSuperclass();
-            searchClass = classForType(searchType);
-        }
-
-        return new Class<?>[]{};
+        return fieldGenericTypesForClass(field, clazz, new TypeResolver());
     }
 
-    static Class<?> classForType(Type type) {
-        Class<?> clazz = Object.class;
-        if (type instanceof Class<?>) {
-            clazz = (Class<?>) type;
-        } else if (type instanceof ParameterizedType) {
-            if (((ParameterizedType) type).getRawType() instanceof Class<?>) {
-                clazz = (Class<?>) ((ParameterizedType) type).getRawType();
-            }
-        } else if (type instanceof TypeVariable<?>) {
-            Object genericDeclaration = ((TypeVariable<?>) type).getGenericDeclaration();
-            if (genericDeclaration instanceof Class<?>) {
-                clazz = (Class<?>) genericDeclaration;
-            }
-        } else if (type instanceof WildcardType) {
-            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
-            Type[] lowerBounds = ((WildcardType) type).getLowerBounds();
-            if (upperBounds.length > 0 && !upperBounds[0].equals(Object.class)) {
-                clazz = BaseBuilder.classForType(upperBounds[0]);
-            } else if (lowerBounds.length > 0) {
-                clazz = BaseBuilder.classForType(lowerBounds[0]);
-            }
+    /**
+     * @param clazz the generic supertype of the field type whose type
+     *              arguments are looked up, <code>null</code> for the
+     *              component type of an array
+     */
+    static Class<?>[] fieldGenericTypesForClass(Field field, Class<?> clazz, TypeResolver types) {
+        ResolvedType type = types.resolve(field.getGenericType());
+        if (clazz == null) {
+            return (type.componentType == null) ? new Class<?>[]{} : new Class<?>[]{type.componentType.rawClass};
         }
-        return clazz;
+        return types.typeArguments(type, clazz);
     }
 
-    static Class<?>[] typeArguments(Type type) {
-        return typeArguments(type, new HashMap<Type, Map<String, Class<?>>>());
+    static Class<?> classForType(Type type) {
+        return TypeResolver.erasure(type);
     }
 
-    static Class<?>[] typeArguments(Type type, Map<Type, Map<String, Class<?>>> genericsInfo) {
-
-        if (type instanceof Class<?> && ((Class<?>) type).isArray()) {
-            Class<?> clazz = ((Class<?>) type).getComponentType();
-            return new Class<?>[]{clazz};
-        }
-        if (type instanceof GenericArrayType) {
-            Type componentType = ((GenericArrayType) type).getGenericComponentType();
-            Class<?> clazz = ((componentType instanceof Class<?>) ? (Class<?>) componentType : Object.class);
-            return new Class<?>[]{clazz};
-        }
-        if (type instanceof TypeVariable<?>) {
-            Class<?> clazz = null;
-            Object genericDeclaration = ((TypeVariable<?>) type).getGenericDeclaration();
-            Map<String, Class<?>> typeGenericsInfo = genericsInfo.get(genericDeclaration);
-
-            if (typeGenericsInfo != null) {
-                clazz = typeGenericsInfo.get(((TypeVariable<?>) type).getName());
-            }
-
-            return new Class<?>[]{clazz == null ? Object.class : clazz};
-        }
-
-        if (type instanceof ParameterizedType) {
-            Type[] actualTypeArguments = ((ParameterizedType) type).getActualTypeArguments();
-            Class<?>[] actualClassArguments = new Class<?>[actualTypeArguments.length];
-            TypeVariable<?>[] typeParameters = new TypeVariable<?>[actualTypeArguments.length];
-
-            Type rawType = ((ParameterizedType) type).getRawType();
-            if (rawType instanceof Class<?>) {
-                typeParameters = ((Class<?>) rawType).getTypeParameters();
-                assert typeParameters.length == actualTypeArguments.length;
-            }
-            Map<String, Class<?>> parameterizedInfo = genericsInfo.get(rawType);
-            if (parameterizedInfo == null) {
-                parameterizedInfo = new HashMap<String, Class<?>>();
-            }
-
-            for (int i = 0; i < actualTypeArguments.length; ++i) {
-                Type actualType = actualTypeArguments[i];
-                String typeParameterName = typeParameters[i].getName();
-
-                if (actualType instanceof Class<?>) {
-                    actualClassArguments[i] = (Class<?>) actualType;
-                } else if (actualType instanceof TypeVariable<?>) {
-                    String actualTypeName = ((TypeVariable<?>) actualType).getName();
-                    Object genericDeclaration = ((TypeVariable<?>) actualType).getGenericDeclaration();
-
-                    Map<String, Class<?>> actualTypeGenerics = genericsInfo.get(genericDeclaration);
-                    if (actualTypeGenerics != null) {
-                        actualClassArguments[i] = actualTypeGenerics.get(actualTypeName);
-                    }
-                    if (actualClassArguments[i] == null) {
-                        actualClassArguments[i] = Object.class;
-                    }
-                } else { // GenericArrayType, ParameterizedType, WildcardType
-                    actualClassArguments[i] = BaseBuilder.classForType(actualType);
-                }
-
-                parameterizedInfo.put(typeParameterName, actualClassArguments[i]);
-            }
-
-            if (parameterizedInfo.size() > 0) {
-                genericsInfo.put(rawType, parameterizedInfo);
-            }
-            return actualClassArguments;
-        }
-        if (type instanceof WildcardType) {
-            Class<?> clazz = BaseBuilder.classForType(type);
-            Map<String, Class<?>> typeGenericsInfo = genericsInfo.get(type);
-            if (typeGenericsInfo == null) {
-                typeGenericsInfo = new HashMap<String, Class<?>>();
-                genericsInfo.put(type, typeGenericsInfo);
+    /**
+     * @return the type of the elements of a container, nested arrays and
+     * collections are unwrapped down to their innermost element
+     */
+    static SourceType elementType(SourceType type) {
+        while (true) {
+            if (type.componentType() != null) {
+                type = type.componentType();
+            } else if (type.isSubtypeOf(Collection.class)) {
+                type = type.typeArgument(Collection.class, 0);
+            } else {
+                return type;
             }
-
-            typeGenericsInfo.put(null, clazz);
-            return new Class<?>[]{clazz};
         }
-
-        return new Class<?>[]{};
     }
 
-    static void setDataTypeFields(DataTypeFields dataTypeFields, Class<?> objClass, boolean isArray, boolean uniqueItems, ApiDeclaration apiDeclaration) {
-        ItemsObject primitive = primitive(objClass);
+    static void setDataTypeFields(DataTypeFields dataTypeFields, SourceType type, boolean isArray, boolean uniqueItems, DeclarationContext context) {
+        ItemsObject primitive = primitive(type.name());
+        String[] constants = type.enumConstants();
         if (isArray) {
             dataTypeFields.type = "array";
             dataTypeFields.uniqueItems = uniqueItems;
             dataTypeFields.items = new ItemsObject();
             if (primitive == null) {
-                dataTypeFields.items.$ref = objClass.getSimpleName();
-                updateApiModels(apiDeclaration, objClass);
+                dataTypeFields.items.$ref = type.simpleName();
+                context.addModel(type);
             } else {
                 dataTypeFields.items.type = primitive.type;
                 dataTypeFields.items.format = primitive.format;
             }
-        } else if (objClass.isEnum()) {
+        } else if (constants != null) {
+            context.addEnum(type);
             dataTypeFields.type = ItemsObject.STRING.type;
-            dataTypeFields.enun = (Enum<?>[]) objClass.getEnumConstants();
+            dataTypeFields.enun = constants;
         } else if (primitive == null) {
-            dataTypeFields.$ref = objClass.getSimpleName();
-            updateApiModels(apiDeclaration, objClass);
+            dataTypeFields.$ref = type.simpleName();
+            context.addModel(type);
         } else {
             dataTypeFields.type = primitive.type;
             dataTypeFields.$ref = primitive.$ref;
@@ -314,56 +200,118 @@ public class BaseBuilder {
         // TODO defaultValue, minimum, maximum
     }
 
-    static void updateApiModels(ApiDeclaration apiDeclaration, Class<?> objClass) {
-        String id = objClass.getSimpleName();
-        ModelObject model = apiDeclaration.models.get(id);
-        if (model != null) {
+    static void updateApiModels(DeclarationContext context, Class<?> objClass) {
+        Map<String, ModelObject> models = context.apiDeclaration.models;
+        if (models.containsKey(objClass.getSimpleName())) {
             return;
         }
-        model = new ModelObject();
-        model.id = id;
+        ModelRegistry.Closure closure = context.models.closure(objClass, context.types);
+        for (Map.Entry<String, ModelObject> model : closure.models.entrySet()) {
+            if (!models.containsKey(model.getKey())) {
+                models.put(model.getKey(), model.getValue());
+            }
+        }
+        context.dependencies.addAll(closure.dependencies);
+    }
+
+    static ModelRegistry.Model introspectModel(Class<?> objClass, TypeResolver types) {
+        final List<String> references = new ArrayList<String>();
+        final Map<String, String> sources = new LinkedHashMap<String, String>();
+        addSource(sources, objClass);
+        DeclarationContext recorder = new DeclarationContext(null, types) {
+            @Override
+            protected void addModel(SourceType type) {
+                references.add(type.name());
+                addSource(sources, ReflectionSource.rawClass(type));
+            }
+
+            @Override
+            protected void addEnum(SourceType type) {
+                addSource(sources, ReflectionSource.rawClass(type));
+            }
+        };
+        ModelObject model = modelOf(new ReflectionSource(types).type(objClass), recorder);
+        return new ModelRegistry.Model(model, references, sources);
+    }
+
+    /**
+     * Introspects the fields of a model, the types its properties refer to
+     * are handed to the context.
+     */
+    public static ModelObject modelOf(SourceType type, DeclarationContext context) {
+        ModelObject model = new ModelObject();
+        model.id = type.simpleName();
         model.properties = new LinkedHashMap<String, PropertyObject>();
-        apiDeclaration.models.put(id, model);
         // TODO description ...
-        Field[] fields = objClass.getDeclaredFields();
-        for (Field field : fields) {
-            if (!Modifier.isStatic(field.getModifiers())) {
-                Class<?> clazz = classForType(field.getGenericType());
-                PropertyObject propertyObject = new PropertyObject();
-                if (clazz.isArray()) {
-                    setDataTypeFields(propertyObject, clazz.getComponentType(), true, false, apiDeclaration);
-                } else if (Set.class.isAssignableFrom(clazz)) {
-                    setDataTypeFields(propertyObject, fieldGenericTypesForClass(field, Set.class)[0], true, true, apiDeclaration);
-                } else if (Collection.class.isAssignableFrom(clazz)) {
-                    setDataTypeFields(propertyObject, fieldGenericTypesForClass(field, Collection.class)[0], true, false, apiDeclaration);
-                } else {
-                    setDataTypeFields(propertyObject, clazz, false, false, apiDeclaration);
-                }
-                model.properties.put(field.getName(), propertyObject);
-            }
+        for (Map.Entry<String, SourceType> field : type.fields().entrySet()) {
+            PropertyObject propertyObject = new PropertyObject();
+            setPropertyFields(propertyObject, field.getValue(), context);
+            model.properties.put(field.getKey(), propertyObject);
+        }
+        return model;
+    }
+
+    /**
+     * Sets the data type of a model property. A map, or the elements of a
+     * collection of maps, also gets the type of its values as
+     * <code>additionalProperties</code>, for the Swagger 2.0 document.
+     */
+    private static void setPropertyFields(DataTypeFields fields, SourceType type, DeclarationContext context) {
+        if (type.componentType() != null || type.isSubtypeOf(Collection.class)) {
+            SourceType element = elementType(type);
+            setDataTypeFields(fields, element, true, type.componentType() == null && type.isSubtypeOf(Set.class), context);
+            fields.items.additionalProperties = mapValues(element, context);
+        } else {
+            setDataTypeFields(fields, type, false, false, context);
+            fields.additionalProperties = mapValues(type, context);
+        }
+    }
+
+    /**
+     * @return the data type of the values of a map, <code>null</code> when
+     * the type is not a map
+     */
+    private static DataTypeFields mapValues(SourceType type, DeclarationContext context) {
+        if (!type.isSubtypeOf(Map.class)) {
+            return null;
+        }
+        DataTypeFields values = new DataTypeFields();
+        setPropertyFields(values, type.typeArgument(Map.class, 1), context);
+        return values;
+    }
+
+    private static void addSource(Map<String, String> sources, Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.getClassLoader() != null) { // JDK classes do not change between builds
+            sources.put(clazz.getName(), ModelRegistry.location(clazz.getClassLoader(), clazz.getName()));
         }
     }
 
-    static ItemsObject primitive(Class<?> objClass) {
-        if (objClass.equals(Void.class)) {
+    /**
+     * @param typeName the binary name of a class or the name of a primitive type
+     */
+    static ItemsObject primitive(String typeName) {
+        if (typeName.equals("java.lang.Void")) {
             return ItemsObject.VOID;
-        } else if (objClass.equals(Integer.class) || objClass.equals(int.class)) {
+        } else if (typeName.equals("java.lang.Integer") || typeName.equals("int")) {
             return ItemsObject.INTEGER;
-        } else if (objClass.equals(Long.class) || objClass.equals(long.class)) {
+        } else if (typeName.equals("java.lang.Long") || typeName.equals("long")) {
             return ItemsObject.LONG;
-        } else if (objClass.equals(Float.class) || objClass.equals(float.class)) {
+        } else if (typeName.equals("java.lang.Float") || typeName.equals("float")) {
             return ItemsObject.FLOAT;
-        } else if (objClass.equals(Double.class) || objClass.equals(double.class)) {
+        } else if (typeName.equals("java.lang.Double") || typeName.equals("double")) {
             return ItemsObject.DOUBLE;
-        } else if (objClass.equals(String.class)) {
+        } else if (typeName.equals("java.lang.String")) {
             return ItemsObject.STRING;
-        } else if (objClass.equals(Byte.class) || objClass.equals(byte.class)) {
+        } else if (typeName.equals("java.lang.Byte") || typeName.equals("byte")) {
             return ItemsObject.BYTE;
-        } else if (objClass.equals(Boolean.class) || objClass.equals(boolean.class)) {
+        } else if (typeName.equals("java.lang.Boolean") || typeName.equals("boolean")) {
             return ItemsObject.BOOLEAN;
-        } else if (objClass.equals(Date.class)) {
+        } else if (typeName.equals("java.util.Date")) {
             return ItemsObject.DATE;
-        } else if (objClass.equals(DateTime.class)) {
+        } else if (typeName.equals("org.joda.time.DateTime")) {
             return ItemsObject.DATE_TIME;
         } else {
             return null;
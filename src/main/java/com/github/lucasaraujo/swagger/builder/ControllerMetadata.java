@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import br.com.caelum.vraptor.Path;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the builders need to know about a controller, read once from its
+ * {@link SourceType}: its annotations, the paths of its resources and its
+ * {@link ApiOperation} methods with their paths and HTTP method. The
+ * declarations of every resource path are built from the same metadata.
+ */
+public class ControllerMetadata {
+
+    public final SourceType type;
+    public final Api api;
+    /**
+     * Absolute path the operation paths are relative to.
+     */
+    public final PathTemplate resourcePath;
+    /**
+     * Paths of the resources listed in the service file.
+     */
+    public final List<String> resourcePaths;
+    /**
+     * Paths of the resources keeping their hierarchy, for the hierarchical
+     * output structure.
+     */
+    public final List<String> nestedResourcePaths;
+    public final List<OperationMetadata> operations;
+
+    private ControllerMetadata(SourceType type, PathTemplates templates) throws MojoExecutionException {
+        this.type = type;
+        this.api = type.getAnnotation(Api.class);
+        Path aPath = type.getAnnotation(Path.class);
+        this.resourcePath = templates.of((aPath == null) ? "/" : aPath.value()[0]).absolute();
+        this.resourcePaths = Collections.unmodifiableList(Arrays.asList(
+                ResourceObjectBuilder.resourceObjectPaths(api, aPath, type.simpleName())));
+        this.nestedResourcePaths = Collections.unmodifiableList(Arrays.asList(
+                ResourceObjectBuilder.resourceObjectPaths(api, aPath, type.simpleName(), false)));
+
+        List<SourceMethod> methods = new ArrayList<SourceMethod>();
+        Map<String, Integer> overloads = new HashMap<String, Integer>();
+        for (SourceMethod method : type.methods()) {
+            if (method.getAnnotation(ApiOperation.class) != null) {
+                methods.add(method);
+                Integer count = overloads.get(method.name());
+                overloads.put(method.name(), (count == null) ? 1 : count + 1);
+            }
+        }
+        List<OperationMetadata> operations = new ArrayList<OperationMetadata>(methods.size());
+        for (SourceMethod method : methods) {
+            operations.add(new OperationMetadata(method, method.getAnnotation(ApiOperation.class), overloads.get(method.name()) > 1, templates));
+        }
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    public static ControllerMetadata of(Class<?> type) throws MojoExecutionException {
+        return of(type, new PathTemplates());
+    }
+
+    /**
+     * @param templates interns the paths of the controller
+     */
+    public static ControllerMetadata of(Class<?> type, PathTemplates templates) throws MojoExecutionException {
+        return of(new ReflectionSource(new TypeResolver()).type(type), templates);
+    }
+
+    /**
+     * @param templates interns the paths of the controller
+     */
+    public static ControllerMetadata of(SourceType type, PathTemplates templates) throws MojoExecutionException {
+        return new ControllerMetadata(type, templates);
+    }
+
+    public static class OperationMetadata {
+
+        public final SourceMethod method;
+        public final ApiOperation operation;
+        public final String httpMethod;
+        /**
+         * Nickname of the operation, unique within the controller unless two
+         * overloads have parameter types of the same simple names.
+         */
+        public final String nickname;
+        /**
+         * Absolute paths of the operation, relative to the resource path.
+         */
+        public final List<PathTemplate> paths;
+
+        OperationMetadata(SourceMethod method, ApiOperation operation, boolean overloaded, PathTemplates templates) throws MojoExecutionException {
+            this.method = method;
+            this.operation = operation;
+            this.httpMethod = BaseBuilder.httpMethod(operation, method);
+            List<String> parameterTypeNames = new ArrayList<String>();
+            for (SourceType parameterType : method.parameterTypes()) {
+                parameterTypeNames.add(parameterType.simpleName());
+            }
+            this.nickname = BaseBuilder.nickname(method.name(), overloaded, parameterTypeNames);
+            List<PathTemplate> paths = new ArrayList<PathTemplate>();
+            for (String path : BaseBuilder.methodPaths(method)) {
+                paths.add(templates.of(path).absolute());
+            }
+            this.paths = Collections.unmodifiableList(paths);
+        }
+
+    }
+
+}
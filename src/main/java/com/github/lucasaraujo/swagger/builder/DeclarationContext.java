@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * State shared by the builders while a single {@link ApiDeclaration} is
+ * being built.
+ */
+public class DeclarationContext {
+
+    /**
+     * The declaration being built.
+     */
+    public final ApiDeclaration apiDeclaration = new ApiDeclaration();
+
+    /**
+     * Names of the classes the declaration was built from: the controller and
+     * its superclasses, the enums of its parameters and responses and every
+     * class its models were introspected from.
+     */
+    public final Set<String> dependencies = new LinkedHashSet<String>();
+
+    /**
+     * Models already introspected, possibly by other declarations.
+     */
+    public final ModelRegistry models;
+
+    /**
+     * Resolver of the generic types of the model properties.
+     */
+    public final TypeResolver types;
+
+    public DeclarationContext() {
+        this(new ModelRegistry());
+    }
+
+    public DeclarationContext(ModelRegistry models) {
+        this(models, new TypeResolver());
+    }
+
+    public DeclarationContext(ModelRegistry models, TypeResolver types) {
+        this.models = models;
+        this.types = types;
+    }
+
+    /**
+     * Called once for the controller the declaration is built from.
+     * Inherited operations are read from the class files of its
+     * superclasses, so they are dependencies as well.
+     */
+    protected void addController(SourceType type) {
+        for (Class<?> clazz = ReflectionSource.rawClass(type); clazz != null && clazz.getClassLoader() != null; clazz = clazz.getSuperclass()) {
+            dependencies.add(clazz.getName());
+        }
+    }
+
+    /**
+     * Called for each type a data type refers to by <code>$ref</code>.
+     */
+    protected void addModel(SourceType type) {
+        BaseBuilder.updateApiModels(this, ReflectionSource.rawClass(type));
+    }
+
+    /**
+     * Called for each enum a data type lists the constants of.
+     */
+    protected void addEnum(SourceType type) {
+        Class<?> clazz = ReflectionSource.rawClass(type);
+        if (clazz.getClassLoader() != null) { // its constants are written in the declaration
+            dependencies.add(clazz.getName());
+        }
+    }
+
+}
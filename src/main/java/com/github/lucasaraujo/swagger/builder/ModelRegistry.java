@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import com.github.lucasaraujo.swagger.model.ModelObject;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The build wide model graph: every class is introspected once by
+ * {@link BaseBuilder#introspectModel(Class, TypeResolver)} and the models
+ * reachable from a class, its closure, are collected once, whatever the
+ * number of declarations using it.
+ * <p/>
+ * The registry holds no reference to the introspected classes. Models are
+ * looked up by class name and class file location, which lets a registry
+ * outlive the class loader of a single execution and be shared by the
+ * executions of a whole reactor build.
+ */
+public class ModelRegistry {
+
+    private final ConcurrentMap<String, Model> models = new ConcurrentHashMap<String, Model>();
+    private final ConcurrentMap<String, Closure> closures = new ConcurrentHashMap<String, Closure>();
+    /**
+     * The models already checked against the class files of a class loader.
+     */
+    private final Map<ClassLoader, Set<Model>> verified = new WeakHashMap<ClassLoader, Set<Model>>();
+
+    /**
+     * @return the model of the class, introspecting it only when no model
+     * was registered for the same class files
+     */
+    public Model describe(Class<?> clazz, TypeResolver types) {
+        String key = key(clazz);
+        Model model = models.get(key);
+        if (model == null || !isCurrent(model, clazz.getClassLoader())) {
+            model = BaseBuilder.introspectModel(clazz, types);
+            models.put(key, model);
+            verified(clazz.getClassLoader()).add(model);
+        }
+        return model;
+    }
+
+    /**
+     * @return the models reachable from the class, the class itself included
+     */
+    public Closure closure(Class<?> root, TypeResolver types) {
+        String key = key(root);
+        Closure closure = closures.get(key);
+        if (closure == null || !isCurrent(closure, root.getClassLoader())) {
+            closure = new Closure();
+            collect(closure, root, types);
+            closures.put(key, closure);
+        }
+        return closure;
+    }
+
+    public int size() {
+        return models.size();
+    }
+
+    private void collect(Closure closure, Class<?> clazz, TypeResolver types) {
+        String id = clazz.getSimpleName();
+        if (closure.models.containsKey(id)) {
+            return;
+        }
+        Model model = describe(clazz, types);
+        closure.models.put(id, model.model);
+        closure.dependencies.addAll(model.sources.keySet());
+        closure.members.add(model);
+        for (String reference : model.references) {
+            try {
+                collect(closure, Class.forName(reference, false, clazz.getClassLoader()), types);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Could not load model class " + reference, e);
+            }
+        }
+    }
+
+    private boolean isCurrent(Closure closure, ClassLoader classLoader) {
+        for (Model member : closure.members) {
+            if (!isCurrent(member, classLoader)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isCurrent(Model model, ClassLoader classLoader) {
+        Set<Model> verified = verified(classLoader);
+        if (verified.contains(model)) {
+            return true;
+        }
+        if (model.isCurrent(classLoader)) {
+            verified.add(model);
+            return true;
+        }
+        return false;
+    }
+
+    private Set<Model> verified(ClassLoader classLoader) {
+        synchronized (verified) {
+            Set<Model> models = verified.get(classLoader);
+            if (models == null) {
+                models = Collections.newSetFromMap(new ConcurrentHashMap<Model, Boolean>());
+                verified.put(classLoader, models);
+            }
+            return models;
+        }
+    }
+
+    private static String key(Class<?> clazz) {
+        return clazz.getName() + "@" + location(clazz.getClassLoader(), clazz.getName());
+    }
+
+    /**
+     * @return the location of the class file, <code>null</code> for the JDK
+     * classes
+     */
+    static String location(ClassLoader classLoader, String className) {
+        if (classLoader == null) {
+            return null;
+        }
+        URL url = classLoader.getResource(className.replace('.', '/') + ".class");
+        return (url == null) ? null : url.toString();
+    }
+
+    /**
+     * The models reachable from a root class.
+     */
+    public static class Closure {
+
+        /**
+         * The models by id, in the order they were reached.
+         */
+        public final Map<String, ModelObject> models = new LinkedHashMap<String, ModelObject>();
+
+        /**
+         * Names of the classes the models were built from.
+         */
+        public final Set<String> dependencies = new LinkedHashSet<String>();
+
+        final List<Model> members = new ArrayList<Model>();
+
+    }
+
+    public static class Model {
+
+        /**
+         * The model itself, shared by every declaration using it. It must not
+         * be modified.
+         */
+        public final ModelObject model;
+
+        /**
+         * Names of the classes the properties of the model refer to by
+         * <code>$ref</code>.
+         */
+        public final List<String> references;
+
+        /**
+         * Locations of the class files the model was built from, by class
+         * name: the class itself and the types of its properties.
+         */
+        public final Map<String, String> sources;
+
+        Model(ModelObject model, List<String> references, Map<String, String> sources) {
+            this.model = model;
+            this.references = Collections.unmodifiableList(references);
+            this.sources = Collections.unmodifiableMap(sources);
+        }
+
+        boolean isCurrent(ClassLoader classLoader) {
+            for (Map.Entry<String, String> source : sources.entrySet()) {
+                String location = location(classLoader, source.getKey());
+                if (location == null ? source.getValue() != null : !location.equals(source.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
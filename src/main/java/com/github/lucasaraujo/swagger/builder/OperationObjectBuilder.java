@@ -19,32 +19,32 @@
 
 package com.github.lucasaraujo.swagger.builder;
 
-import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.builder.ControllerMetadata.OperationMetadata;
 import com.github.lucasaraujo.swagger.model.OperationObject;
 import com.wordnik.swagger.annotations.ApiOperation;
 import org.apache.maven.plugin.MojoExecutionException;
 
-import java.lang.reflect.Method;
-
 public class OperationObjectBuilder extends BaseBuilder {
 
-    public static OperationObject buildOf(String path, ApiOperation operation, Method method, ApiDeclaration apiDeclaration) throws MojoExecutionException {
+    public static OperationObject buildOf(PathTemplate path, OperationMetadata metadata, DeclarationContext context) throws MojoExecutionException {
+        ApiOperation operation = metadata.operation;
+        SourceMethod method = metadata.method;
         OperationObject operationObject = new OperationObject();
-        operationObject.method = httpMethod(operation, method);
+        operationObject.method = metadata.httpMethod;
         operationObject.summary = operation.value();
         operationObject.notes = operation.notes();
-        operationObject.nickname = nicknameFromMethod(method);
+        operationObject.nickname = metadata.nickname;
         operationObject.produces = splitMineTypes(operation.produces());
         operationObject.consumes = splitMineTypes(operation.consumes());
-        operationObject.parameters = ParameterObjectBuilder.buildOf(operationObject.method, path, method, apiDeclaration);
+        operationObject.parameters = ParameterObjectBuilder.buildOf(operationObject.method, path, method, context);
         // TODO responseMessages
 
         // Set operation return value
         if (operation.responseContainer().length() > 0) {
             boolean uniqueItems = operation.responseContainer().equalsIgnoreCase("set");
-            setDataTypeFields(operationObject, operation.response(), true, uniqueItems, apiDeclaration);
+            setDataTypeFields(operationObject, method.responseType(), true, uniqueItems, context);
         } else {
-            setDataTypeFields(operationObject, operation.response(), apiDeclaration);
+            setDataTypeFields(operationObject, method.responseType(), context);
         }
 
         if (method.getAnnotation(Deprecated.class) != null) {
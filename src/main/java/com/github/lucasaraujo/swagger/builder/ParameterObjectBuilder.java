@@ -21,110 +21,78 @@ package com.github.lucasaraujo.swagger.builder;
 
 import br.com.caelum.vraptor.Consumes;
 import br.com.caelum.vraptor.HeaderParam;
-import com.github.lucasaraujo.swagger.model.ApiDeclaration;
 import com.github.lucasaraujo.swagger.model.ModelObject;
 import com.github.lucasaraujo.swagger.model.ParameterObject;
 import com.github.lucasaraujo.swagger.model.PropertyObject;
-import com.thoughtworks.paranamer.AdaptiveParanamer;
-import com.thoughtworks.paranamer.Paranamer;
 import com.wordnik.swagger.annotations.ApiParam;
 import org.apache.maven.plugin.MojoExecutionException;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class ParameterObjectBuilder extends BaseBuilder {
 
-    private static final Pattern pathParamsPattern = Pattern.compile("\\{([^\\{\\}]*)\\}");
-
-    public static List<ParameterObject> buildOf(String httpMethod, String path, Method method, ApiDeclaration apiDeclaration) throws MojoExecutionException {
+    public static List<ParameterObject> buildOf(String httpMethod, PathTemplate path, SourceMethod method, DeclarationContext context) throws MojoExecutionException {
 
         Map<String, ParameterObject> parameterMap = new LinkedHashMap<String, ParameterObject>();
-
-        List<Class<?>> parameterTypes = new ArrayList<Class<?>>();
-        Collections.addAll(parameterTypes, method.getParameterTypes());
-
-        List<String> parameterNames = new ArrayList<String>();
-        try {
-            Paranamer paranamer = new AdaptiveParanamer();
-            Collections.addAll(parameterNames, paranamer.lookupParameterNames(method));
-        } catch (Exception e) {
-            throw new MojoExecutionException("Could not get parameter names", e);
-        }
+        List<SourceParameter> parameters = new ArrayList<SourceParameter>(method.parameters());
 
         // "header" parameters
-        Annotation[][] paramsAnnotations = method.getParameterAnnotations();
-        for (int count = 0, i = 0; i < paramsAnnotations.length; ++i) {
-            Annotation[] annotations = paramsAnnotations[i];
-            for (Annotation annotation : annotations) {
-                if (HeaderParam.class.isAssignableFrom(annotation.annotationType())) {
-                    int idx = i - count;
-                    ParameterObject parameter = buildOf("header", parameterNames.get(idx), parameterTypes.get(idx), apiDeclaration);
-                    parameterMap.put(parameter.name, parameter);
-                    parameterTypes.remove(idx);
-                    parameterNames.remove(idx);
-                    ++count;
-                    break;
-                }
+        for (Iterator<SourceParameter> itr = parameters.iterator(); itr.hasNext(); ) {
+            SourceParameter parameter = itr.next();
+            if (parameter.getAnnotation(HeaderParam.class) != null) {
+                ParameterObject parameterObject = buildOf("header", parameter, context);
+                parameterMap.put(parameterObject.name, parameterObject);
+                itr.remove();
             }
         }
 
         // "path" parameters
-        Matcher matcher = pathParamsPattern.matcher(path);
-        while (matcher.find()) {
-            String paramName = matcher.group(1);
-            int idx = parameterNames.indexOf(paramName);
-            if (idx >= 0) {
-                ParameterObject parameter = buildOf("path", paramName, parameterTypes.get(idx), apiDeclaration);
-                parameterMap.put(parameter.name, parameter);
-                parameterNames.remove(idx);
-                parameterTypes.remove(idx);
-            }
-        }
-
-        if ("GET".equals(httpMethod)) { // GET request do not have body (payload)
-            Iterator<Class<?>> typeItr = parameterTypes.iterator();
-            Iterator<String> nameItr = parameterNames.iterator();
-            while (nameItr.hasNext() && typeItr.hasNext()) {
-                ParameterObject parameter = buildOf("query", nameItr.next(), typeItr.next(), apiDeclaration);
-                parameterMap.put(parameter.name, parameter);
-                nameItr.remove();
-                typeItr.remove();
+        for (String paramName : path.parameterNames()) {
+            for (Iterator<SourceParameter> itr = parameters.iterator(); itr.hasNext(); ) {
+                SourceParameter parameter = itr.next();
+                if (parameter.name().equals(paramName)) {
+                    ParameterObject parameterObject = buildOf("path", parameter, context);
+                    parameterMap.put(parameterObject.name, parameterObject);
+                    itr.remove();
+                    break;
+                }
             }
         }
 
-        String type = method.getAnnotation(Consumes.class) == null ? "form" : "body";
-        Iterator<Class<?>> typeItr = parameterTypes.iterator();
-        Iterator<String> nameItr = parameterNames.iterator();
-        while (nameItr.hasNext() && typeItr.hasNext()) {
-            String name = nameItr.next();
-            Class<?> clazz = typeItr.next();
-            if ((clazz.getSimpleName().equals("File"))) {
-                ParameterObject parameter = buildOf("form", name, clazz, apiDeclaration);
-                parameterMap.put(parameter.name, parameter);
-            } else {
-                ParameterObject parameter = buildOf(type, name, clazz, apiDeclaration);
-                parameterMap.put(parameter.name, parameter);
-            }
-            nameItr.remove();
-            typeItr.remove();
+        String type = ("GET".equals(httpMethod)) ? "query" // GET request do not have body (payload)
+                : (method.getAnnotation(Consumes.class) == null) ? "form" : "body";
+        for (SourceParameter parameter : parameters) {
+            boolean file = !"GET".equals(httpMethod) && parameter.type().simpleName().equals("File");
+            ParameterObject parameterObject = buildOf(file ? "form" : type, parameter, context);
+            parameterMap.put(parameterObject.name, parameterObject);
         }
 
         return new ArrayList<ParameterObject>(parameterMap.values());
     }
 
-    public static ParameterObject buildOf(String type, String name, Class<?> clazz, ApiDeclaration apiDeclaration) {
+    static ParameterObject buildOf(String type, SourceParameter parameter, DeclarationContext context) {
+        return buildOf(type, parameter.name(), parameter.type(), parameter.getAnnotation(ApiParam.class), context);
+    }
+
+    public static ParameterObject buildOf(String type, String name, Class<?> clazz, DeclarationContext context) {
+        return buildOf(type, name, clazz, null, context);
+    }
+
+    /**
+     * @param apiParam the annotation of the method parameter, may be <code>null</code>
+     */
+    public static ParameterObject buildOf(String type, String name, Class<?> clazz, ApiParam apiParam, DeclarationContext context) {
+        return buildOf(type, name, new ReflectionSource(context.types).type(clazz), apiParam, context);
+    }
+
+    static ParameterObject buildOf(String type, String name, SourceType sourceType, ApiParam apiParam, DeclarationContext context) {
         ParameterObject parameterObject = new ParameterObject();
         parameterObject.paramType = type;
-        setDataTypeFields(parameterObject, clazz, apiDeclaration);
+        setDataTypeFields(parameterObject, sourceType, context);
         if (parameterObject.type == null) {
             parameterObject.type = parameterObject.$ref;
             parameterObject.$ref = null;
         }
-        ApiParam apiParam = clazz.getAnnotation(ApiParam.class);
         if (apiParam != null) {
             parameterObject.description = apiParam.value();
             parameterObject.required = apiParam.required();
@@ -132,16 +100,7 @@ public class ParameterObjectBuilder extends BaseBuilder {
         }
 
         if (parameterObject.paramType.equals("body")) {
-            PropertyObject propertyObject = new PropertyObject();
-            propertyObject.$ref = parameterObject.type;
-            ModelObject model = new ModelObject();
-            model.id = "$" + clazz.getSimpleName();
-            model.properties = new HashMap<String, PropertyObject>(1);
-            model.properties.put(name, propertyObject);
-            model.required = new String[]{name};
-            apiDeclaration.models.put(model.id, model);
-            parameterObject.name = "body";
-            parameterObject.type = model.id;
+            wrapBody(parameterObject, name, sourceType.simpleName(), context.apiDeclaration.models);
         } else if (apiParam != null && apiParam.name() != null && apiParam.name().length() > 0) {
             parameterObject.name = apiParam.name();
         } else {
@@ -150,4 +109,21 @@ public class ParameterObjectBuilder extends BaseBuilder {
         return parameterObject;
     }
 
+    /**
+     * Describes a "body" parameter by a model holding the payload as its only
+     * property.
+     */
+    private static void wrapBody(ParameterObject parameterObject, String name, String simpleName, Map<String, ModelObject> models) {
+        PropertyObject propertyObject = new PropertyObject();
+        propertyObject.$ref = parameterObject.type;
+        ModelObject model = new ModelObject();
+        model.id = "$" + simpleName;
+        model.properties = new HashMap<String, PropertyObject>(1);
+        model.properties.put(name, propertyObject);
+        model.required = new String[]{name};
+        models.put(model.id, model);
+        parameterObject.name = "body";
+        parameterObject.type = model.id;
+    }
+
 }
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A VRaptor path parsed once into its parts: literal text,
+ * <code>{param}</code> placeholders, placeholders constrained by a regular
+ * expression such as <code>{id:[0-9]+}</code>, greedy placeholders such as
+ * <code>{path*}</code> and <code>*</code> wildcards.
+ * <p/>
+ * Templates are interned by {@link PathTemplates}, so the path
+ * transformations of the builders are computed once for each path. The
+ * templates derived from a template are interned with it.
+ */
+public final class PathTemplate {
+
+    public enum Kind {LITERAL, PARAMETER, WILDCARD}
+
+    public static final class Part {
+
+        public final Kind kind;
+        /**
+         * The text of the part as written in the path.
+         */
+        public final String text;
+        /**
+         * Name of a placeholder, <code>null</code> for the other parts.
+         */
+        public final String name;
+        /**
+         * Regular expression constraining a placeholder, <code>null</code>
+         * when unconstrained.
+         */
+        public final String pattern;
+        /**
+         * Whether a placeholder matches several segments, <code>{path*}</code>.
+         */
+        public final boolean greedy;
+
+        Part(Kind kind, String text, String name, String pattern, boolean greedy) {
+            this.kind = kind;
+            this.text = text;
+            this.name = name;
+            this.pattern = pattern;
+            this.greedy = greedy;
+        }
+
+    }
+
+    private final String path;
+    private final PathTemplates templates;
+    private final List<Part> parts;
+    private final List<String> parameterNames;
+    private volatile PathTemplate absolute;
+    private volatile PathTemplate oneLevel;
+
+    PathTemplate(String path, PathTemplates templates) {
+        this.path = path;
+        this.templates = templates;
+        this.parts = Collections.unmodifiableList(parse(path));
+        List<String> names = new ArrayList<String>();
+        for (Part part : parts) {
+            if (part.kind == Kind.PARAMETER) {
+                names.add(part.name);
+            }
+        }
+        this.parameterNames = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return the template of the path, not shared with any other caller
+     */
+    public static PathTemplate of(String path) {
+        return new PathTemplates().of(path);
+    }
+
+    public List<Part> parts() {
+        return parts;
+    }
+
+    /**
+     * @return the names of the placeholders, in the order they appear
+     */
+    public List<String> parameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * @return the path starting with a slash, an empty path is left empty
+     */
+    public PathTemplate absolute() {
+        PathTemplate result = absolute;
+        if (result == null) {
+            result = (path.length() == 0 || path.charAt(0) == '/') ? this : templates.of("/" + path);
+            absolute = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the path with every non word character that follows another
+     * character replaced by an underscore, so it can be used as a single
+     * level file name, <code>/</code> becomes <code>/_</code>
+     */
+    public PathTemplate oneLevel() {
+        PathTemplate result = oneLevel;
+        if (result == null) {
+            StringBuilder builder = new StringBuilder(path.length());
+            int i = 0;
+            while (i < path.length()) {
+                char c = path.charAt(i);
+                // pairs never overlap: the replaced character can not be the first one of the next pair
+                if (i + 1 < path.length() && !isLineTerminator(c) && !isWordCharacter(path.charAt(i + 1))) {
+                    builder.append(c).append('_');
+                    i += 2;
+                } else {
+                    builder.append(c);
+                    ++i;
+                }
+            }
+            String oneLevelPath = builder.toString();
+            result = templates.of(oneLevelPath.equals("/") ? "/_" : oneLevelPath);
+            oneLevel = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the path followed by the absolute form of the other path,
+     * without a trailing slash of its own
+     */
+    public PathTemplate join(PathTemplate other) {
+        String first = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return templates.of(first + other.absolute().path);
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static List<Part> parse(String path) {
+        List<Part> parts = new ArrayList<Part>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (c == '{') {
+                int end = closingBrace(path, i);
+                if (end < 0) { // not a placeholder
+                    literal.append(path.substring(i));
+                    break;
+                }
+                addLiteral(parts, literal);
+                parts.add(placeholder(path.substring(i, end + 1)));
+                i = end + 1;
+            } else if (c == '*') {
+                addLiteral(parts, literal);
+                parts.add(new Part(Kind.WILDCARD, "*", null, null, true));
+                ++i;
+            } else {
+                literal.append(c);
+                ++i;
+            }
+        }
+        addLiteral(parts, literal);
+        return parts;
+    }
+
+    private static Part placeholder(String text) {
+        String content = text.substring(1, text.length() - 1);
+        String pattern = null;
+        int colon = content.indexOf(':');
+        if (colon >= 0) {
+            pattern = content.substring(colon + 1);
+            content = content.substring(0, colon);
+        }
+        boolean greedy = content.endsWith("*");
+        String name = greedy ? content.substring(0, content.length() - 1) : content;
+        return new Part(Kind.PARAMETER, text, name.trim(), pattern, greedy);
+    }
+
+    /**
+     * @return the index of the brace closing the one at <code>start</code>,
+     * braces of a regular expression included, <code>-1</code> if there is
+     * none
+     */
+    private static int closingBrace(String path, int start) {
+        int depth = 0;
+        for (int i = start; i < path.length(); ++i) {
+            char c = path.charAt(i);
+            if (c == '\\') {
+                ++i;
+            } else if (c == '{') {
+                ++depth;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void addLiteral(List<Part> parts, StringBuilder literal) {
+        if (literal.length() > 0) {
+            String text = literal.toString();
+            parts.add(new Part(Kind.LITERAL, text, null, null, false));
+            literal.setLength(0);
+        }
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns the {@link PathTemplate}s of the paths it is given, and of the
+ * templates derived from them. The templates are kept as long as the
+ * instance, which is shared by the executions of a Maven session.
+ */
+public class PathTemplates {
+
+    private final ConcurrentMap<String, PathTemplate> templates = new ConcurrentHashMap<String, PathTemplate>();
+
+    /**
+     * @return the interned template of the path
+     */
+    public PathTemplate of(String path) {
+        PathTemplate template = templates.get(path);
+        if (template == null) {
+            template = new PathTemplate(path, this);
+            PathTemplate previous = templates.putIfAbsent(path, template);
+            if (previous != null) {
+                template = previous;
+            }
+        }
+        return template;
+    }
+
+}
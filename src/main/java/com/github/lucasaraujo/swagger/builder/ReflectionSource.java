@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import com.github.lucasaraujo.scanner.ParameterNames;
+import com.github.lucasaraujo.swagger.builder.TypeResolver.ResolvedType;
+import com.wordnik.swagger.annotations.ApiOperation;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the types, methods and parameters of compiled classes, with the
+ * generic types resolved by a {@link TypeResolver}.
+ */
+public class ReflectionSource {
+
+    private final TypeResolver types;
+
+    public ReflectionSource(TypeResolver types) {
+        this.types = types;
+    }
+
+    public SourceType type(Type type) {
+        return new ReflectionType(types.resolve(type));
+    }
+
+    /**
+     * @return the class of a type read by a {@link ReflectionSource}
+     */
+    public static Class<?> rawClass(SourceType type) {
+        return ((ReflectionType) type).type.rawClass;
+    }
+
+    private class ReflectionType implements SourceType {
+
+        private final ResolvedType type;
+
+        ReflectionType(ResolvedType type) {
+            this.type = type;
+        }
+
+        public String simpleName() {
+            return type.rawClass.getSimpleName();
+        }
+
+        public String name() {
+            return type.rawClass.getName();
+        }
+
+        public SourceType componentType() {
+            return (type.componentType == null) ? null : new ReflectionType(type.componentType);
+        }
+
+        public String[] enumConstants() {
+            if (!type.rawClass.isEnum()) {
+                return null;
+            }
+            Object[] constants = type.rawClass.getEnumConstants();
+            String[] names = new String[constants.length];
+            for (int i = 0; i < constants.length; ++i) {
+                names[i] = ((Enum<?>) constants[i]).name();
+            }
+            return names;
+        }
+
+        public boolean isAssignableFrom(Class<?> clazz) {
+            return type.rawClass.isAssignableFrom(clazz);
+        }
+
+        public boolean isSubtypeOf(Class<?> clazz) {
+            return clazz.isAssignableFrom(type.rawClass);
+        }
+
+        public SourceType typeArgument(Class<?> genericClass, int index) {
+            ResolvedType supertype = types.supertype(type, genericClass);
+            return (supertype == null || supertype.arguments.isEmpty())
+                    ? typeOf(Object.class) : new ReflectionType(supertype.arguments.get(index));
+        }
+
+        public Map<String, SourceType> fields() {
+            Map<String, SourceType> fields = new LinkedHashMap<String, SourceType>();
+            for (Field field : type.rawClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.put(field.getName(), type(field.getGenericType()));
+                }
+            }
+            return fields;
+        }
+
+        public List<SourceMethod> methods() {
+            List<SourceMethod> methods = new ArrayList<SourceMethod>();
+            for (Method method : type.rawClass.getMethods()) {
+                methods.add(new ReflectionMethod(method));
+            }
+            return methods;
+        }
+
+        public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            return type.rawClass.getAnnotation(annotationClass);
+        }
+
+        public SourceType typeOf(Class<?> clazz) {
+            return type(clazz);
+        }
+
+        @Override
+        public String toString() {
+            return type.toString();
+        }
+
+    }
+
+    private class ReflectionMethod implements SourceMethod {
+
+        private final Method method;
+
+        ReflectionMethod(Method method) {
+            this.method = method;
+        }
+
+        public String name() {
+            return method.getName();
+        }
+
+        public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            return method.getAnnotation(annotationClass);
+        }
+
+        public List<SourceType> parameterTypes() {
+            List<SourceType> parameterTypes = new ArrayList<SourceType>();
+            for (Class<?> parameterType : method.getParameterTypes()) {
+                parameterTypes.add(type(parameterType));
+            }
+            return parameterTypes;
+        }
+
+        public List<SourceParameter> parameters() throws MojoExecutionException {
+            String[] names;
+            try {
+                names = ParameterNames.lookup(method);
+            } catch (IOException e) {
+                throw new MojoExecutionException("Could not get parameter names", e);
+            }
+            if (names == null) {
+                throw new MojoExecutionException(String.format("Could not get parameter names of %s#%s, compile with debug information",
+                        method.getDeclaringClass().getName(), method.getName()));
+            }
+            List<SourceType> parameterTypes = parameterTypes();
+            Annotation[][] annotations = method.getParameterAnnotations();
+            List<SourceParameter> parameters = new ArrayList<SourceParameter>(names.length);
+            for (int i = 0; i < names.length; ++i) {
+                parameters.add(new ReflectionParameter(names[i], parameterTypes.get(i), annotations[i]));
+            }
+            return parameters;
+        }
+
+        public SourceType responseType() {
+            return type(method.getAnnotation(ApiOperation.class).response());
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder parameters = new StringBuilder();
+            for (Class<?> parameterType : method.getParameterTypes()) {
+                if (parameters.length() > 0) {
+                    parameters.append(", ");
+                }
+                parameters.append(parameterType.getName());
+            }
+            return method.getDeclaringClass().getName() + "#" + method.getName() + "(" + parameters + ")";
+        }
+
+    }
+
+    private static class ReflectionParameter implements SourceParameter {
+
+        private final String name;
+        private final SourceType type;
+        private final List<Annotation> annotations;
+
+        ReflectionParameter(String name, SourceType type, Annotation[] annotations) {
+            this.name = name;
+            this.type = type;
+            this.annotations = Arrays.asList(annotations);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public SourceType type() {
+            return type;
+        }
+
+        public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            for (Annotation annotation : annotations) {
+                if (annotationClass.isInstance(annotation)) {
+                    return annotationClass.cast(annotation);
+                }
+            }
+            return null;
+        }
+
+    }
+
+}
@@ -24,14 +24,29 @@ import com.github.lucasaraujo.swagger.model.ResourceObject;
 import com.wordnik.swagger.annotations.Api;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ResourceObjectBuilder extends BaseBuilder {
 
     public static List<ResourceObject> buildOf(Class<?> clazz) {
-        Api api = clazz.getAnnotation(Api.class);
+        return buildOf(clazz.getAnnotation(Api.class), Arrays.asList(resourceObjectPaths(clazz)));
+    }
+
+    public static List<ResourceObject> buildOf(ControllerMetadata controller) {
+        return buildOf(controller, true);
+    }
+
+    /**
+     * @param flat whether the resource paths are flattened to a single level
+     */
+    public static List<ResourceObject> buildOf(ControllerMetadata controller, boolean flat) {
+        return buildOf(controller.api, flat ? controller.resourcePaths : controller.nestedResourcePaths);
+    }
+
+    private static List<ResourceObject> buildOf(Api api, List<String> paths) {
         List<ResourceObject> resourceObjects = new ArrayList<ResourceObject>();
-        for (String path : resourceObjectPaths(clazz)) {
+        for (String path : paths) {
             ResourceObject resourceObject = new ResourceObject();
             resourceObject.path = path;
             resourceObject.description = api.description();
@@ -41,25 +56,39 @@ public class ResourceObjectBuilder extends BaseBuilder {
     }
 
     private static String[] resourceObjectPaths(Class<?> clazz) {
-        Api api = clazz.getAnnotation(Api.class);
+        return resourceObjectPaths(clazz.getAnnotation(Api.class), clazz.getAnnotation(Path.class), clazz.getSimpleName());
+    }
+
+    static String[] resourceObjectPaths(Api api, Path pathClass, String simpleName) {
+        return resourceObjectPaths(api, pathClass, simpleName, true);
+    }
+
+    /**
+     * @param oneLevel whether the paths are flattened to a single level, as
+     *                 the file names of the flat output structure
+     */
+    static String[] resourceObjectPaths(Api api, Path pathClass, String simpleName, boolean oneLevel) {
         String basePath = api.basePath();
 
         String path = api.value();
         if (path.length() > 0) {
-            return new String[]{joinPaths(basePath, formatAbsolutePath(path))};
+            return new String[]{joinPaths(basePath, resourcePath(path, oneLevel))};
         }
 
-        Path pathClass = clazz.getAnnotation(Path.class);
         if (pathClass != null) {
             String[] paths = pathClass.value();
             for (int i = 0; i < paths.length; ++i) {
-                paths[i] = joinPaths(basePath, formatAbsolutePath(paths[i]));
+                paths[i] = joinPaths(basePath, resourcePath(paths[i], oneLevel));
             }
             return paths;
         }
 
-        path = clazz.getSimpleName().replaceFirst("Controller$", "");
-        return new String[]{formatAbsolutePath(path)};
+        path = simpleName.replaceFirst("Controller$", "");
+        return new String[]{resourcePath(path, oneLevel)};
+    }
+
+    private static String resourcePath(String path, boolean oneLevel) {
+        return oneLevel ? formatAbsolutePath(path) : ensureAbsolutePath(path);
     }
 
 }
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * A method of a controller, read from a compiled class or from the source
+ * model of the annotation processor.
+ */
+public interface SourceMethod {
+
+    String name();
+
+    <A extends Annotation> A getAnnotation(Class<A> annotationClass);
+
+    List<SourceType> parameterTypes();
+
+    /**
+     * @return the parameters with their names, which compiled classes only
+     * keep with their debug information
+     */
+    List<SourceParameter> parameters() throws MojoExecutionException;
+
+    /**
+     * @return the response type of the {@link com.wordnik.swagger.annotations.ApiOperation}
+     * of the method
+     */
+    SourceType responseType();
+
+}
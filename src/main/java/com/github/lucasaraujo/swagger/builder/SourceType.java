@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A type the builders document, read from a compiled class by
+ * {@link ReflectionSource} or from the source model of the annotation
+ * processor. Type variables and wildcards are replaced by their bound.
+ */
+public interface SourceType {
+
+    /**
+     * @return the name {@link Class#getSimpleName()} gives to the type
+     */
+    String simpleName();
+
+    /**
+     * @return the binary name of a class or the name of a primitive type
+     */
+    String name();
+
+    /**
+     * @return the component type of an array, <code>null</code> for other
+     * types
+     */
+    SourceType componentType();
+
+    /**
+     * @return the names of the constants of an enum, <code>null</code> for
+     * other types
+     */
+    String[] enumConstants();
+
+    /**
+     * @return <code>true</code> if instances of the class are instances of
+     * the type
+     */
+    boolean isAssignableFrom(Class<?> clazz);
+
+    /**
+     * @return <code>true</code> if instances of the type are instances of the
+     * class
+     */
+    boolean isSubtypeOf(Class<?> clazz);
+
+    /**
+     * @return the type argument at the given index the type gives to the
+     * generic class, <code>Object</code> when the type is raw
+     */
+    SourceType typeArgument(Class<?> genericClass, int index);
+
+    /**
+     * @return the types of the fields declared by the type that are not
+     * static, by name in the order they are declared
+     */
+    Map<String, SourceType> fields();
+
+    /**
+     * @return the public methods of the type, the inherited ones included
+     */
+    List<SourceMethod> methods();
+
+    <A extends Annotation> A getAnnotation(Class<A> annotationClass);
+
+    /**
+     * @return the type of the class, read from the same source
+     */
+    SourceType typeOf(Class<?> clazz);
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves reflection types into canonical {@link ResolvedType} trees:
+ * type variables are replaced by their bindings (or the erasure of their
+ * bound), wildcards by their bound and nested type arguments are resolved
+ * to any depth.
+ * <p/>
+ * Resolved types are interned and the supertypes of each resolved type,
+ * with the type arguments they are given, are computed once. A resolver
+ * holds references to the classes it resolved, so it should not outlive
+ * the class loader of an execution.
+ */
+public class TypeResolver {
+
+    private static final List<ResolvedType> NO_ARGUMENTS = Collections.emptyList();
+
+    private final ConcurrentMap<ResolvedType, ResolvedType> canonical = new ConcurrentHashMap<ResolvedType, ResolvedType>();
+    private final ConcurrentMap<ResolvedType, Map<Class<?>, ResolvedType>> supertypes = new ConcurrentHashMap<ResolvedType, Map<Class<?>, ResolvedType>>();
+
+    /**
+     * @return the resolved type, type variables resolve to the erasure of
+     * their bound
+     */
+    public ResolvedType resolve(Type type) {
+        return resolve(type, Collections.<TypeVariable<?>, ResolvedType>emptyMap());
+    }
+
+    /**
+     * @return the resolved supertype of the type whose raw class is
+     * <code>superClass</code> (the type itself included), <code>null</code>
+     * if the type does not extend it
+     */
+    public ResolvedType supertype(ResolvedType type, Class<?> superClass) {
+        return supertypes(type).get(superClass);
+    }
+
+    /**
+     * @return the erased type arguments the type gives to
+     * <code>superClass</code>, the erasure of their bounds when the supertype
+     * is raw and no arguments when the type does not extend it
+     */
+    public Class<?>[] typeArguments(ResolvedType type, Class<?> superClass) {
+        ResolvedType supertype = supertype(type, superClass);
+        if (supertype == null) {
+            return new Class<?>[]{};
+        }
+        TypeVariable<?>[] parameters = superClass.getTypeParameters();
+        Class<?>[] arguments = new Class<?>[parameters.length];
+        for (int i = 0; i < parameters.length; ++i) {
+            arguments[i] = supertype.arguments.isEmpty()
+                    ? erasure(parameters[i]) : supertype.arguments.get(i).rawClass;
+        }
+        return arguments;
+    }
+
+    private ResolvedType resolve(Type type, Map<TypeVariable<?>, ResolvedType> bindings) {
+        if (type instanceof Class<?>) {
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isArray()) {
+                return intern(new ResolvedType(clazz, resolve(clazz.getComponentType(), bindings), NO_ARGUMENTS));
+            }
+            return intern(new ResolvedType(clazz, null, NO_ARGUMENTS));
+        }
+        if (type instanceof ParameterizedType) {
+            Type[] actualTypeArguments = ((ParameterizedType) type).getActualTypeArguments();
+            List<ResolvedType> arguments = new ArrayList<ResolvedType>(actualTypeArguments.length);
+            for (Type argument : actualTypeArguments) {
+                arguments.add(resolve(argument, bindings));
+            }
+            return intern(new ResolvedType(erasure(type), null, Collections.unmodifiableList(arguments)));
+        }
+        if (type instanceof GenericArrayType) {
+            ResolvedType componentType = resolve(((GenericArrayType) type).getGenericComponentType(), bindings);
+            return intern(new ResolvedType(Array.newInstance(componentType.rawClass, 0).getClass(), componentType, NO_ARGUMENTS));
+        }
+        if (type instanceof TypeVariable<?>) {
+            ResolvedType bound = bindings.get(type);
+            // bounds are erased, resolving them could loop on recursive bounds such as Enum<E extends Enum<E>>
+            return (bound != null) ? bound : resolve(erasure(type), bindings);
+        }
+        if (type instanceof WildcardType) {
+            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+            Type[] lowerBounds = ((WildcardType) type).getLowerBounds();
+            if (upperBounds.length > 0 && !upperBounds[0].equals(Object.class)) {
+                return resolve(upperBounds[0], bindings);
+            } else if (lowerBounds.length > 0) {
+                return resolve(lowerBounds[0], bindings);
+            }
+        }
+        return resolve(Object.class, bindings);
+    }
+
+    private Map<Class<?>, ResolvedType> supertypes(ResolvedType type) {
+        Map<Class<?>, ResolvedType> result = supertypes.get(type);
+        if (result != null) {
+            return result;
+        }
+
+        result = new LinkedHashMap<Class<?>, ResolvedType>();
+        result.put(type.rawClass, type);
+        Map<TypeVariable<?>, ResolvedType> bindings = new HashMap<TypeVariable<?>, ResolvedType>();
+        TypeVariable<?>[] parameters = type.rawClass.getTypeParameters();
+        if (parameters.length == type.arguments.size()) {
+            for (int i = 0; i < parameters.length; ++i) {
+                bindings.put(parameters[i], type.arguments.get(i));
+            }
+        }
+        List<Type> directSupertypes = new ArrayList<Type>();
+        if (type.rawClass.getGenericSuperclass() != null) {
+            directSupertypes.add(type.rawClass.getGenericSuperclass());
+        }
+        Collections.addAll(directSupertypes, type.rawClass.getGenericInterfaces());
+        for (Type directSupertype : directSupertypes) {
+            for (Map.Entry<Class<?>, ResolvedType> entry : supertypes(resolve(directSupertype, bindings)).entrySet()) {
+                if (!result.containsKey(entry.getKey())) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        result = Collections.unmodifiableMap(result);
+        Map<Class<?>, ResolvedType> previous = supertypes.putIfAbsent(type, result);
+        return (previous == null) ? result : previous;
+    }
+
+    private ResolvedType intern(ResolvedType type) {
+        ResolvedType previous = canonical.putIfAbsent(type, type);
+        return (previous == null) ? type : previous;
+    }
+
+    /**
+     * @return the erasure of the type, the bound of a type variable and the
+     * bound of a wildcard, preferring the upper one unless it is
+     * <code>Object</code>
+     */
+    public static Class<?> erasure(Type type) {
+        if (type instanceof Class<?>) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            Type rawType = ((ParameterizedType) type).getRawType();
+            return (rawType instanceof Class<?>) ? (Class<?>) rawType : Object.class;
+        } else if (type instanceof GenericArrayType) {
+            return Array.newInstance(erasure(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        } else if (type instanceof TypeVariable<?>) {
+            Type[] bounds = ((TypeVariable<?>) type).getBounds();
+            return (bounds.length > 0) ? erasure(bounds[0]) : Object.class;
+        } else if (type instanceof WildcardType) {
+            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+            Type[] lowerBounds = ((WildcardType) type).getLowerBounds();
+            if (upperBounds.length > 0 && !upperBounds[0].equals(Object.class)) {
+                return erasure(upperBounds[0]);
+            } else if (lowerBounds.length > 0) {
+                return erasure(lowerBounds[0]);
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * A type with all of its type arguments resolved. Instances returned by
+     * the same resolver are canonical and may be compared by identity.
+     */
+    public static final class ResolvedType {
+
+        public final Class<?> rawClass;
+        /**
+         * The resolved component type of an array, <code>null</code> for
+         * other types.
+         */
+        public final ResolvedType componentType;
+        /**
+         * The resolved type arguments, empty for raw and non generic types.
+         */
+        public final List<ResolvedType> arguments;
+
+        private final int hashCode;
+
+        ResolvedType(Class<?> rawClass, ResolvedType componentType, List<ResolvedType> arguments) {
+            this.rawClass = rawClass;
+            this.componentType = componentType;
+            this.arguments = arguments;
+            this.hashCode = 31 * (31 * rawClass.hashCode() + (componentType == null ? 0 : componentType.hashCode())) + arguments.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResolvedType)) {
+                return false;
+            }
+            ResolvedType other = (ResolvedType) obj;
+            return hashCode == other.hashCode && rawClass.equals(other.rawClass)
+                    && (componentType == null ? other.componentType == null : componentType.equals(other.componentType))
+                    && arguments.equals(other.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            if (componentType != null) {
+                return componentType + "[]";
+            }
+            if (arguments.isEmpty()) {
+                return rawClass.getName();
+            }
+            StringBuilder builder = new StringBuilder(rawClass.getName()).append('<');
+            for (Iterator<ResolvedType> i = arguments.iterator(); i.hasNext(); ) {
+                builder.append(i.next());
+                if (i.hasNext()) {
+                    builder.append(", ");
+                }
+            }
+            return builder.append('>').toString();
+        }
+
+    }
+
+}
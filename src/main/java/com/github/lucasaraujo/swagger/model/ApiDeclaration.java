@@ -96,6 +96,18 @@ public class ApiDeclaration implements Serializable {
      */
     public Map<String, ModelObject> models;
 
+    /**
+     * Path of the shared document holding the models of this resource, when
+     * they are not repeated in {@link #models}. Not part of the specification.
+     */
+    public String modelsPath;
+
+    /**
+     * Ids of the models of the shared document this resource refers to. Not
+     * part of the specification.
+     */
+    public String[] modelIds;
+
     /**
      * A list of MIME types the APIs on this resource can produce. This is
      * global to all APIs but can be overridden on specific API calls.
@@ -31,7 +31,7 @@ public class DataTypeFields extends ItemsObject {
     public String defaultValue;
 
     @JsonProperty("enum")
-    public Enum<?>[] enun;
+    public String[] enun;
 
     public String minimum;
 
@@ -19,6 +19,7 @@
 
 package com.github.lucasaraujo.swagger.model;
 
+import org.codehaus.jackson.annotate.JsonIgnore;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 
 import java.io.Serializable;
@@ -82,6 +83,13 @@ public class ItemsObject implements Serializable {
      */
     public String format;
 
+    /**
+     * The type of the values when the type is a map. Swagger 1.2 only refers
+     * to the model of the map, this is written in the Swagger 2.0 document.
+     */
+    @JsonIgnore
+    public DataTypeFields additionalProperties;
+
     public ItemsObject() {
         this(null, null, null);
     }
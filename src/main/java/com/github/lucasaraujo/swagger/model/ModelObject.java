@@ -19,6 +19,7 @@
 
 package com.github.lucasaraujo.swagger.model;
 
+import java.util.Arrays;
 import java.util.Map;
 
 public class ModelObject {
@@ -31,4 +32,59 @@ public class ModelObject {
 
     public Map<String, PropertyObject> properties;
 
+    /**
+     * @return whether the other model describes the same JSON, field by
+     * field, whatever the order of its properties
+     */
+    public boolean sameAs(ModelObject other) {
+        if (other == this) {
+            return true;
+        }
+        if (other == null || !equal(id, other.id) || !equal(description, other.description)
+                || !Arrays.equals(required, other.required)) {
+            return false;
+        }
+        if (properties == null || other.properties == null) {
+            return properties == other.properties;
+        }
+        if (!properties.keySet().equals(other.properties.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, PropertyObject> property : properties.entrySet()) {
+            if (!same(property.getValue(), other.properties.get(property.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean same(PropertyObject first, PropertyObject second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return equal(first.description, second.description) && same((DataTypeFields) first, second);
+    }
+
+    private static boolean same(DataTypeFields first, DataTypeFields second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return equal(first.defaultValue, second.defaultValue)
+                && Arrays.equals(first.enun, second.enun) && equal(first.minimum, second.minimum)
+                && equal(first.maximum, second.maximum) && first.uniqueItems == second.uniqueItems
+                && same((ItemsObject) first, second) && same(first.items, second.items);
+    }
+
+    private static boolean same(ItemsObject first, ItemsObject second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return equal(first.type, second.type) && equal(first.$ref, second.$ref) && equal(first.format, second.format)
+                && same(first.additionalProperties, second.additionalProperties);
+    }
+
+    private static boolean equal(Object first, Object second) {
+        return (first == null) ? second == null : first.equals(second);
+    }
+
 }
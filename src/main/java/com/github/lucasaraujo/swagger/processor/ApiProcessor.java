@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.processor;
+
+import com.github.lucasaraujo.OutputLayout;
+import com.github.lucasaraujo.swagger.builder.ApiDeclarationBuilder;
+import com.github.lucasaraujo.swagger.builder.ControllerMetadata;
+import com.github.lucasaraujo.swagger.builder.PathTemplates;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.model.ResourceListing;
+import com.github.lucasaraujo.swagger.model.ResourceObject;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializer;
+import com.wordnik.swagger.annotations.Api;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the Swagger resource listing and API declarations while the
+ * {@link Api} annotated controllers are compiled, as an alternative to the
+ * <code>generate</code> goal which loads the compiled classes.
+ * <p/>
+ * Options:
+ * <ul>
+ * <li><code>swagger.apiVersion</code>: version of the application API;</li>
+ * <li><code>swagger.basePath</code>: base path of the declarations, <code>/</code> by default;</li>
+ * <li><code>swagger.directory</code>: directory the documents are written to. When not set
+ * they are written to <code>api-docs</code> in the class output;</li>
+ * <li><code>swagger.useOutputFlatStructure</code>, <code>swagger.hashPrefixLength</code> and
+ * <code>swagger.canonical</code>: the same as the parameters of the <code>generate</code> goal.</li>
+ * </ul>
+ * Only the controllers being compiled are documented. The resources of the
+ * listing already written are kept when they are not compiled again, so a
+ * partial compilation does not drop the other controllers from the listing,
+ * but a removed controller stays listed until the output is cleaned.
+ */
+@SupportedAnnotationTypes("com.wordnik.swagger.annotations.Api")
+@SupportedOptions({ApiProcessor.API_VERSION, ApiProcessor.BASE_PATH, ApiProcessor.DIRECTORY, ApiProcessor.FLAT,
+        ApiProcessor.HASH_PREFIX_LENGTH, ApiProcessor.CANONICAL})
+public class ApiProcessor extends AbstractProcessor {
+
+    static final String API_VERSION = "swagger.apiVersion";
+    static final String BASE_PATH = "swagger.basePath";
+    static final String DIRECTORY = "swagger.directory";
+    static final String FLAT = "swagger.useOutputFlatStructure";
+    static final String HASH_PREFIX_LENGTH = "swagger.hashPrefixLength";
+    static final String CANONICAL = "swagger.canonical";
+    static final String CLASS_OUTPUT_DIRECTORY = "api-docs";
+    static final String LISTING_FILE = "service";
+
+    private final Set<String> classNames = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Api.class)) {
+            if (element instanceof TypeElement) {
+                classNames.add(((TypeElement) element).getQualifiedName().toString());
+            }
+        }
+        if (roundEnv.processingOver() && !classNames.isEmpty()) {
+            generate();
+        }
+        return false;
+    }
+
+    private void generate() {
+        Map<String, String> options = processingEnv.getOptions();
+        String basePath = options.get(BASE_PATH);
+        OutputLayout layout;
+        try {
+            layout = new OutputLayout(!"false".equals(options.get(FLAT)),
+                    options.containsKey(HASH_PREFIX_LENGTH) ? Integer.parseInt(options.get(HASH_PREFIX_LENGTH)) : 0);
+        } catch (NumberFormatException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Invalid " + HASH_PREFIX_LENGTH + ": " + options.get(HASH_PREFIX_LENGTH));
+            return;
+        }
+        SwaggerSerializer serializer = new SwaggerSerializer("true".equals(options.get(CANONICAL)));
+        ResourceListing listing = new ResourceListing();
+        listing.apiVersion = processingEnv.getOptions().get(API_VERSION);
+        listing.apis = new ArrayList<ResourceObject>();
+        ElementSource source = new ElementSource(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+        PathTemplates templates = new PathTemplates();
+
+        for (String className : classNames) {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(className);
+            ControllerMetadata metadata;
+            ApiDeclaration apiDeclaration;
+            try {
+                metadata = ControllerMetadata.of(source.type(type.asType()), templates);
+                apiDeclaration = ApiDeclarationBuilder.buildOf(metadata, new ElementDeclarationContext());
+            } catch (MojoExecutionException e) {
+                processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), type);
+                return;
+            }
+            apiDeclaration.apiVersion = listing.apiVersion;
+            apiDeclaration.basePath = (basePath == null) ? "/" : basePath;
+
+            for (String path : layout.isFlat() ? metadata.resourcePaths : metadata.nestedResourcePaths) {
+                String location = layout.location(path);
+                String owner = layout.claim(location, className);
+                if (owner != null) {
+                    processingEnv.getMessager().printMessage(Kind.ERROR, String.format("Declaration %s of %s is also written for %s,"
+                            + " their resource paths must stay different once written as file names", location, className, owner), type);
+                    return;
+                }
+                ResourceObject resourceObject = new ResourceObject();
+                resourceObject.path = location;
+                resourceObject.description = metadata.api.description();
+                listing.apis.add(resourceObject);
+
+                apiDeclaration.resourcePath = path;
+                write(location, apiDeclaration, serializer);
+            }
+        }
+        write("/" + LISTING_FILE, merge(readListing(serializer), listing), serializer);
+    }
+
+    /**
+     * @return the listing with the resources of the previous one it does not
+     * have, in the previous order, the new resources last
+     */
+    static ResourceListing merge(ResourceListing previous, ResourceListing listing) {
+        if (previous == null || previous.apis == null) {
+            return listing;
+        }
+        Map<String, ResourceObject> resources = new LinkedHashMap<String, ResourceObject>();
+        for (ResourceObject resourceObject : previous.apis) {
+            resources.put(resourceObject.path, resourceObject);
+        }
+        for (ResourceObject resourceObject : listing.apis) {
+            resources.put(resourceObject.path, resourceObject);
+        }
+        listing.apis = new ArrayList<ResourceObject>(resources.values());
+        return listing;
+    }
+
+    /**
+     * @return the listing written by a previous compilation, <code>null</code>
+     * when there is none or it can not be read
+     */
+    private ResourceListing readListing(SwaggerSerializer serializer) {
+        try {
+            String directory = processingEnv.getOptions().get(DIRECTORY);
+            if (directory != null) {
+                File file = new File(directory, LISTING_FILE);
+                return file.isFile() ? serializer.readListing(file) : null;
+            }
+            FileObject resource = processingEnv.getFiler().getResource(
+                    StandardLocation.CLASS_OUTPUT, "", CLASS_OUTPUT_DIRECTORY + "/" + LISTING_FILE);
+            InputStream in = resource.openInputStream();
+            try {
+                return serializer.readListing(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param path the location of the document, relative to the output directory
+     */
+    private void write(String path, Object document, SwaggerSerializer serializer) {
+        String relativePath = path.replaceFirst("^/", "");
+        try {
+            String directory = processingEnv.getOptions().get(DIRECTORY);
+            OutputStream out;
+            if (directory != null) {
+                File file = new File(directory, relativePath);
+                file.getParentFile().mkdirs();
+                out = new FileOutputStream(file);
+            } else {
+                FileObject resource = processingEnv.getFiler().createResource(
+                        StandardLocation.CLASS_OUTPUT, "", CLASS_OUTPUT_DIRECTORY + "/" + relativePath);
+                out = resource.openOutputStream();
+            }
+            serializer.write(document, out);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Generating file error: " + path + ": " + e);
+        }
+    }
+
+}
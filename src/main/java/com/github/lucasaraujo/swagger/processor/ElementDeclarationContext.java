@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.processor;
+
+import com.github.lucasaraujo.swagger.builder.BaseBuilder;
+import com.github.lucasaraujo.swagger.builder.DeclarationContext;
+import com.github.lucasaraujo.swagger.builder.SourceType;
+import com.github.lucasaraujo.swagger.model.ModelObject;
+
+import java.util.Map;
+
+/**
+ * Builds the models of a declaration from the source model. Nothing is
+ * kept between declarations and no dependency is recorded: javac compiles
+ * the controllers again whenever they change.
+ */
+class ElementDeclarationContext extends DeclarationContext {
+
+    ElementDeclarationContext() {
+        super(null, null);
+    }
+
+    @Override
+    protected void addController(SourceType type) {
+    }
+
+    @Override
+    protected void addModel(SourceType type) {
+        Map<String, ModelObject> models = apiDeclaration.models;
+        String id = type.simpleName();
+        if (models.containsKey(id)) {
+            return;
+        }
+        models.put(id, null); // models referring to themselves are introspected once
+        models.put(id, BaseBuilder.modelOf(type, this));
+    }
+
+    @Override
+    protected void addEnum(SourceType type) {
+    }
+
+}
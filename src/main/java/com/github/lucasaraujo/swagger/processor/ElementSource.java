@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.processor;
+
+import com.github.lucasaraujo.swagger.builder.SourceMethod;
+import com.github.lucasaraujo.swagger.builder.SourceParameter;
+import com.github.lucasaraujo.swagger.builder.SourceType;
+import com.wordnik.swagger.annotations.ApiOperation;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the types, methods and parameters of the source model, so the
+ * builders produce the same documents during javac as from the compiled
+ * classes.
+ */
+public class ElementSource {
+
+    private final Elements elements;
+    private final Types types;
+
+    public ElementSource(Elements elements, Types types) {
+        this.elements = elements;
+        this.types = types;
+    }
+
+    /**
+     * Wildcards are read as their bound and type variables as their
+     * erasure, as the reflection source resolves them.
+     */
+    public SourceType type(TypeMirror type) {
+        switch (type.getKind()) {
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    return type(wildcard.getExtendsBound());
+                } else if (wildcard.getSuperBound() != null) {
+                    return type(wildcard.getSuperBound());
+                }
+                return type(Object.class);
+            case TYPEVAR:
+                return type(types.erasure(type));
+            default:
+                return new MirrorType(type);
+        }
+    }
+
+    private SourceType type(Class<?> clazz) {
+        return new MirrorType(erasure(clazz));
+    }
+
+    private TypeMirror erasure(Class<?> clazz) {
+        return types.erasure(elements.getTypeElement(clazz.getCanonicalName()).asType());
+    }
+
+    private class MirrorType implements SourceType {
+
+        private final TypeMirror type;
+
+        MirrorType(TypeMirror type) {
+            this.type = type;
+        }
+
+        public String simpleName() {
+            switch (type.getKind()) {
+                case ARRAY:
+                    return componentType().simpleName() + "[]";
+                case DECLARED:
+                    return ((DeclaredType) type).asElement().getSimpleName().toString();
+                default:
+                    return type.toString();
+            }
+        }
+
+        public String name() {
+            if (type.getKind().isPrimitive()) {
+                return type.toString();
+            }
+            Element element = types.asElement(type);
+            return (element instanceof TypeElement) ? elements.getBinaryName((TypeElement) element).toString() : type.toString();
+        }
+
+        public SourceType componentType() {
+            return (type.getKind() == TypeKind.ARRAY) ? type(((ArrayType) type).getComponentType()) : null;
+        }
+
+        public String[] enumConstants() {
+            Element element = types.asElement(type);
+            if (element == null || element.getKind() != ElementKind.ENUM) {
+                return null;
+            }
+            List<String> constants = new ArrayList<String>();
+            for (Element enclosed : element.getEnclosedElements()) {
+                if (enclosed.getKind() == ElementKind.ENUM_CONSTANT) {
+                    constants.add(enclosed.getSimpleName().toString());
+                }
+            }
+            return constants.toArray(new String[constants.size()]);
+        }
+
+        public boolean isAssignableFrom(Class<?> clazz) {
+            return types.isAssignable(erasure(clazz), types.erasure(type));
+        }
+
+        public boolean isSubtypeOf(Class<?> clazz) {
+            return types.isAssignable(types.erasure(type), erasure(clazz));
+        }
+
+        public SourceType typeArgument(Class<?> genericClass, int index) {
+            TypeMirror genericType = erasure(genericClass);
+            Deque<TypeMirror> pending = new ArrayDeque<TypeMirror>();
+            pending.add(type);
+            while (!pending.isEmpty()) {
+                TypeMirror current = pending.poll();
+                if (types.isSameType(types.erasure(current), genericType)) {
+                    List<? extends TypeMirror> arguments = ((DeclaredType) current).getTypeArguments();
+                    return arguments.isEmpty() ? type(Object.class) : type(arguments.get(index));
+                }
+                pending.addAll(types.directSupertypes(current));
+            }
+            return type(Object.class);
+        }
+
+        public Map<String, SourceType> fields() {
+            Map<String, SourceType> fields = new LinkedHashMap<String, SourceType>();
+            if (type.getKind() == TypeKind.DECLARED) {
+                for (VariableElement field : ElementFilter.fieldsIn(types.asElement(type).getEnclosedElements())) {
+                    if (!field.getModifiers().contains(Modifier.STATIC)) {
+                        fields.put(field.getSimpleName().toString(), type(field.asType()));
+                    }
+                }
+            }
+            return fields;
+        }
+
+        public List<SourceMethod> methods() {
+            List<SourceMethod> methods = new ArrayList<SourceMethod>();
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers((TypeElement) types.asElement(type)))) {
+                if (method.getModifiers().contains(Modifier.PUBLIC)) {
+                    methods.add(new ElementMethod(method));
+                }
+            }
+            return methods;
+        }
+
+        public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            Element element = types.asElement(type);
+            return (element == null) ? null : element.getAnnotation(annotationClass);
+        }
+
+        public SourceType typeOf(Class<?> clazz) {
+            return type(clazz);
+        }
+
+        @Override
+        public String toString() {
+            return type.toString();
+        }
+
+    }
+
+    private class ElementMethod implements SourceMethod {
+
+        private final ExecutableElement method;
+
+        ElementMethod(ExecutableElement method) {
+            this.method = method;
+        }
+
+        public String name() {
+            return method.getSimpleName().toString();
+        }
+
+        public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            return method.getAnnotation(annotationClass);
+        }
+
+        public List<SourceType> parameterTypes() {
+            List<SourceType> parameterTypes = new ArrayList<SourceType>();
+            for (VariableElement parameter : method.getParameters()) {
+                parameterTypes.add(type(parameter.asType()));
+            }
+            return parameterTypes;
+        }
+
+        public List<SourceParameter> parameters() {
+            List<SourceParameter> parameters = new ArrayList<SourceParameter>();
+            for (VariableElement parameter : method.getParameters()) {
+                parameters.add(new ElementParameter(parameter));
+            }
+            return parameters;
+        }
+
+        public SourceType responseType() {
+            try {
+                return type(method.getAnnotation(ApiOperation.class).response());
+            } catch (MirroredTypeException e) {
+                return type(e.getTypeMirror());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return method.getEnclosingElement() + "#" + method;
+        }
+
+    }
+
+    private class ElementParameter implements SourceParameter {
+
+        private final VariableElement parameter;
+
+        ElementParameter(VariableElement parameter) {
+            this.parameter = parameter;
+        }
+
+        public String name() {
+            return parameter.getSimpleName().toString();
+        }
+
+        public SourceType type() {
+            return ElementSource.this.type(parameter.asType());
+        }
+
+        public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+            return parameter.getAnnotation(annotationClass);
+        }
+
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single file holding the resource listing and every declaration, so a
+ * server can map it and serve each document as a slice of it.
+ * <p/>
+ * The file starts with an index, all numbers being big endian:
+ * <pre>
+ * magic    4 bytes  "SWGB"
+ * version  int      1
+ * count    int      number of documents
+ * count times:
+ *   path   modified UTF-8 string, as {@link DataOutputStream#writeUTF(String)}
+ *   offset long     position of the document from the start of the file
+ *   length int      size of the document in bytes
+ * </pre>
+ * followed by the documents, in the order of the index.
+ */
+public class Bundle {
+
+    private static final byte[] MAGIC = {'S', 'W', 'G', 'B'};
+    private static final int VERSION = 1;
+
+    private Bundle() {
+    }
+
+    /**
+     * @param documents the content of each path, in the order they are bundled
+     */
+    public static byte[] write(Map<String, byte[]> documents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        // the index has the same size whatever the offsets, it is written once to be measured
+        writeIndex(out, documents, 0);
+        int indexLength = bytes.size();
+        bytes.reset();
+        writeIndex(out, documents, indexLength);
+        for (byte[] document : documents.values()) {
+            out.write(document);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeIndex(DataOutputStream out, Map<String, byte[]> documents, long offset) throws IOException {
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(documents.size());
+        for (Map.Entry<String, byte[]> document : documents.entrySet()) {
+            out.writeUTF(document.getKey());
+            out.writeLong(offset);
+            out.writeInt(document.getValue().length);
+            offset += document.getValue().length;
+        }
+    }
+
+    /**
+     * @return the content of each path, in the order of the index
+     */
+    public static Map<String, byte[]> read(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static Map<String, byte[]> read(RandomAccessFile in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(MAGIC, magic) || in.readInt() != VERSION) {
+            throw new IOException("Not a bundle");
+        }
+        int count = in.readInt();
+        Map<String, long[]> index = new LinkedHashMap<String, long[]>();
+        for (int i = 0; i < count; ++i) {
+            String path = in.readUTF();
+            index.put(path, new long[]{in.readLong(), in.readInt()});
+        }
+        Map<String, byte[]> documents = new LinkedHashMap<String, byte[]>();
+        for (Map.Entry<String, long[]> entry : index.entrySet()) {
+            byte[] document = new byte[(int) entry.getValue()[1]];
+            in.seek(entry.getValue()[0]);
+            in.readFully(document);
+            documents.put(entry.getKey(), document);
+        }
+        return documents;
+    }
+
+}
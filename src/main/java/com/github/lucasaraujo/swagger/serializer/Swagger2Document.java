@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.serializer;
+
+import com.github.lucasaraujo.swagger.builder.PathTemplate;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.model.ApiObject;
+import com.github.lucasaraujo.swagger.model.DataTypeFields;
+import com.github.lucasaraujo.swagger.model.ItemsObject;
+import com.github.lucasaraujo.swagger.model.ModelObject;
+import com.github.lucasaraujo.swagger.model.OperationObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A Swagger 2.0 document gathering the 1.2 declarations of every resource:
+ * their operations by path and HTTP method, tagged with their resource, and
+ * their models in a single <code>definitions</code> section. It is written by
+ * the {@link SwaggerSerializer}, each model once.
+ *
+ * @see <a href="https://github.com/OAI/OpenAPI-Specification/blob/main/versions/2.0.md">Swagger
+ * 2.0 Specification</a>
+ */
+public class Swagger2Document {
+
+    public final String title;
+    public final String version;
+
+    /**
+     * The host, and port, of the API when the 1.2 base path is an absolute
+     * URL.
+     */
+    public final String host;
+
+    /**
+     * The scheme of the API when the 1.2 base path is an absolute URL.
+     */
+    public final String[] schemes;
+
+    /**
+     * The path of the API relative to the host, starting with a slash.
+     */
+    public final String basePath;
+
+    /**
+     * Description of each tag, by name.
+     */
+    final Map<String, String> tags = new LinkedHashMap<String, String>();
+
+    /**
+     * Operations of each path, by lower case HTTP method.
+     */
+    final Map<String, Map<String, Operation>> paths = new LinkedHashMap<String, Map<String, Operation>>();
+
+    /**
+     * Models by definition name.
+     */
+    final Map<String, Definition> definitions = new LinkedHashMap<String, Definition>();
+
+    private final List<String> warnings = new ArrayList<String>();
+
+    /**
+     * @param basePath the base path of the 1.2 declarations, an absolute URL
+     *                 or a path, split into the host, the scheme and the
+     *                 path of the API
+     */
+    public Swagger2Document(String title, String version, String basePath) {
+        this.title = title;
+        this.version = version;
+        int separator = (basePath == null) ? -1 : basePath.indexOf("://");
+        if (separator > 0) {
+            String authority = basePath.substring(separator + 3);
+            int slash = authority.indexOf('/');
+            this.schemes = new String[]{basePath.substring(0, separator).toLowerCase(Locale.ENGLISH)};
+            this.host = (slash < 0) ? authority : authority.substring(0, slash);
+            this.basePath = basePath((slash < 0) ? "" : authority.substring(slash));
+        } else {
+            this.schemes = null;
+            this.host = null;
+            this.basePath = (basePath == null) ? null : basePath(basePath);
+        }
+    }
+
+    /**
+     * @return the path with a leading slash and without a trailing one, as
+     * the paths of the operations are appended to it
+     */
+    private static String basePath(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            --end;
+        }
+        int start = 0;
+        while (start < end && path.charAt(start) == '/') {
+            ++start;
+        }
+        return "/" + path.substring(start, end);
+    }
+
+    /**
+     * Adds the operations and models of a declaration. An operation already
+     * added for the same path and method, by another resource of the same
+     * controller, only gets the tag of the resource; any other operation of
+     * that path and method is dropped with a warning. A model whose id is
+     * already defined by a different model is renamed, <code>Order_2</code>,
+     * and the declaration refers to it by that name.
+     *
+     * @param resourcePath the path of the resource, naming its tag
+     */
+    public void add(String resourcePath, String description, ApiDeclaration declaration) {
+        String tag = resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath;
+        if (!tags.containsKey(tag)) {
+            tags.put(tag, description);
+        }
+        Map<String, String> names = names(declaration.models);
+        if (declaration.models != null) {
+            for (Map.Entry<String, ModelObject> model : declaration.models.entrySet()) {
+                String name = names.get(model.getKey());
+                if (!definitions.containsKey(name)) {
+                    definitions.put(name, new Definition(model.getValue(), names));
+                    if (!name.equals(model.getKey())) {
+                        warnings.add(String.format("Model %s of %s differs from the one already defined, renamed %s",
+                                model.getKey(), resourcePath, name));
+                    }
+                }
+            }
+        }
+        if (declaration.apis != null) {
+            for (ApiObject api : declaration.apis) {
+                if (api != null && api.operations != null) {
+                    add(tag, api, declaration, names);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the conflicts found while adding the declarations
+     */
+    public List<String> warnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * @return the definition name of each model id of a declaration: the id
+     * itself unless another model is already defined with it, in which case
+     * the first free or identical <code>id_n</code>. Models referring to
+     * renamed models are renamed too.
+     */
+    private Map<String, String> names(Map<String, ModelObject> models) {
+        Map<String, String> names = new HashMap<String, String>();
+        if (models == null) {
+            return names;
+        }
+        for (String id : models.keySet()) {
+            names.put(id, id);
+        }
+        boolean renamed = true;
+        while (renamed) { // names only move forward, so this ends
+            renamed = false;
+            for (Map.Entry<String, ModelObject> model : models.entrySet()) {
+                String name = names.get(model.getKey());
+                Definition definition = definitions.get(name);
+                if (definition != null && !definition.matches(model.getValue(), names)) {
+                    names.put(model.getKey(), nextName(model.getKey(), name, model.getValue(), names));
+                    renamed = true;
+                }
+            }
+        }
+        return names;
+    }
+
+    private String nextName(String id, String name, ModelObject model, Map<String, String> names) {
+        int index = name.equals(id) ? 2 : Integer.parseInt(name.substring(id.length() + 1)) + 1;
+        while (true) {
+            String next = id + "_" + index;
+            Definition definition = definitions.get(next);
+            if ((definition == null || definition.matches(model, names)) && !names.containsValue(next)) {
+                return next;
+            }
+            ++index;
+        }
+    }
+
+    /**
+     * @return the definition name of a model id of the declaration
+     */
+    static String name(Map<String, String> names, String id) {
+        String name = names.get(id);
+        return (name == null) ? id : name;
+    }
+
+    private void add(String tag, ApiObject api, ApiDeclaration declaration, Map<String, String> names) {
+        String path = path(api.path);
+        Map<String, Operation> operations = paths.get(path);
+        if (operations == null) {
+            operations = new LinkedHashMap<String, Operation>();
+            paths.put(path, operations);
+        }
+        for (OperationObject operationObject : api.operations) {
+            if (operationObject == null || operationObject.method == null) {
+                continue;
+            }
+            String method = operationObject.method.toLowerCase();
+            Operation operation = operations.get(method);
+            if (operation == null) {
+                operations.put(method, new Operation(tag, operationObject, declaration, names));
+            } else if (operation.operation.nickname != null && operation.operation.nickname.equals(operationObject.nickname)) {
+                if (!operation.tags.contains(tag)) {
+                    operation.tags.add(tag);
+                }
+            } else {
+                warnings.add(String.format("Operation %s of %s dropped, %s %s is already defined by %s",
+                        operationObject.nickname, tag, operationObject.method, path, operation.operation.nickname));
+            }
+        }
+    }
+
+    /**
+     * @return the path with its placeholders reduced to their name, Swagger
+     * 2.0 templates having neither regular expressions nor greedy markers
+     */
+    static String path(String path) {
+        StringBuilder result = new StringBuilder(path.length());
+        for (PathTemplate.Part part : PathTemplate.of(path).parts()) {
+            result.append((part.kind == PathTemplate.Kind.PARAMETER) ? "{" + part.name + "}" : part.text);
+        }
+        return result.toString();
+    }
+
+    static class Operation {
+
+        final List<String> tags = new ArrayList<String>();
+        final OperationObject operation;
+
+        /**
+         * The media types of the declaration, for the operations without
+         * their own.
+         */
+        final String[] produces;
+        final String[] consumes;
+
+        /**
+         * The definition name of each model id of the declaration.
+         */
+        final Map<String, String> names;
+
+        Operation(String tag, OperationObject operation, ApiDeclaration declaration, Map<String, String> names) {
+            this.tags.add(tag);
+            this.operation = operation;
+            this.produces = (operation.produces != null) ? operation.produces : declaration.produces;
+            this.consumes = (operation.consumes != null) ? operation.consumes : declaration.consumes;
+            this.names = names;
+        }
+
+    }
+
+    static class Definition {
+
+        final ModelObject model;
+
+        /**
+         * The definition name of each model id of the declaration the model
+         * comes from, for the models it refers to.
+         */
+        final Map<String, String> names;
+
+        Definition(ModelObject model, Map<String, String> names) {
+            this.model = model;
+            this.names = names;
+        }
+
+        /**
+         * @return whether the model of a declaration is this one, the models
+         * it refers to included
+         */
+        boolean matches(ModelObject other, Map<String, String> otherNames) {
+            if (!model.sameAs(other)) {
+                return false;
+            }
+            if (model.properties != null) {
+                for (DataTypeFields property : model.properties.values()) {
+                    if (!refersAlike(property, otherNames)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return whether a data type, its items and the values of its maps
+         * refer to the same definitions with both sets of names
+         */
+        private boolean refersAlike(ItemsObject fields, Map<String, String> otherNames) {
+            for (; fields != null; fields = fields.additionalProperties) {
+                if (fields.$ref != null && !name(names, fields.$ref).equals(name(otherNames, fields.$ref))) {
+                    return false;
+                }
+                if (fields instanceof DataTypeFields && !refersAlike(((DataTypeFields) fields).items, otherNames)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
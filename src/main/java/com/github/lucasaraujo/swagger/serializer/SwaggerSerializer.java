@@ -0,0 +1,683 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.serializer;
+
+import com.github.lucasaraujo.swagger.model.*;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
+import org.codehaus.jackson.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the Swagger documents through a {@link JsonGenerator}, field by
+ * field, without introspecting the model beans. The output is the same as
+ * the one of an {@link ObjectMapper} configured with {@link Inclusion#NON_NULL}:
+ * same properties, same order (the renamed <code>enum</code> property last)
+ * and the <code>uniqueItems</code> flag only when set.
+ * <p/>
+ * It also writes the {@link Swagger2Document}, from the same model objects.
+ * <p/>
+ * In the canonical mode the models and properties are written sorted by name,
+ * the resources and apis by path, the operations by nickname and HTTP method
+ * and the parameters by type and name, so the same documents always give the
+ * same bytes whatever the order they were built in.
+ * <p/>
+ * A serializer is meant to be created once per execution and may be used by
+ * several threads.
+ */
+public class SwaggerSerializer {
+
+    private static final Comparator<ResourceObject> RESOURCE_ORDER = new Comparator<ResourceObject>() {
+        public int compare(ResourceObject first, ResourceObject second) {
+            return compareStrings(first.path, second.path);
+        }
+    };
+    private static final Comparator<ApiObject> API_ORDER = new Comparator<ApiObject>() {
+        public int compare(ApiObject first, ApiObject second) {
+            return compareStrings(first.path, second.path);
+        }
+    };
+    private static final Comparator<OperationObject> OPERATION_ORDER = new Comparator<OperationObject>() {
+        public int compare(OperationObject first, OperationObject second) {
+            int result = compareStrings(first.nickname, second.nickname);
+            return (result != 0) ? result : compareStrings(first.method, second.method);
+        }
+    };
+    private static final Comparator<ParameterObject> PARAMETER_ORDER = new Comparator<ParameterObject>() {
+        public int compare(ParameterObject first, ParameterObject second) {
+            int result = compareStrings(first.paramType, second.paramType);
+            return (result != 0) ? result : compareStrings(first.name, second.name);
+        }
+    };
+
+    private static final Comparator<ResponseMessageObject> RESPONSE_ORDER = new Comparator<ResponseMessageObject>() {
+        public int compare(ResponseMessageObject first, ResponseMessageObject second) {
+            return (first.code < second.code) ? -1 : ((first.code == second.code) ? 0 : 1);
+        }
+    };
+    private static final String DEFINITIONS = "#/definitions/";
+
+    /**
+     * Swagger 1.2 types that are not model ids.
+     */
+    private static final Set<String> TYPES = new HashSet<String>(Arrays.asList(
+            "integer", "number", "string", "boolean", "array", "object", "void", "File"));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectWriter writer;
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final boolean canonical;
+
+    public SwaggerSerializer() {
+        this(false);
+    }
+
+    /**
+     * @param canonical whether the collections are written in their canonical
+     *                  order rather than the order they were built in
+     */
+    public SwaggerSerializer(boolean canonical) {
+        this.canonical = canonical;
+        mapper.setSerializationInclusion(Inclusion.NON_NULL);
+        writer = mapper.writer();
+    }
+
+    /**
+     * @return the writer of the values outside of the model package, it
+     * shares the configuration and the serializer cache of the serializer
+     */
+    public ObjectWriter writer() {
+        return writer;
+    }
+
+    /**
+     * Writes the document as UTF-8 JSON, the stream is closed once written.
+     *
+     * @param document an {@link ApiDeclaration} or a {@link ResourceListing},
+     *                 anything else is written by the {@link #writer()}
+     */
+    public void write(Object document, OutputStream out) throws IOException {
+        write(mapper.getJsonFactory(), document, out);
+    }
+
+    private void write(JsonFactory factory, Object document, OutputStream out) throws IOException {
+        JsonGenerator generator = factory.createJsonGenerator(out, JsonEncoding.UTF8);
+        try {
+            write(generator, document);
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * @return the document as UTF-8 JSON
+     * @see #write(Object, OutputStream)
+     */
+    public byte[] serialize(Object document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(document, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the document in the Smile binary format, the same properties as
+     * the JSON document in the same order
+     */
+    public byte[] serializeSmile(Object document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(smileFactory, document, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the declaration written by {@link #serialize(Object)}
+     */
+    public ApiDeclaration readDeclaration(byte[] content) throws IOException {
+        return mapper.readValue(content, ApiDeclaration.class);
+    }
+
+    public ApiDeclaration readDeclaration(File file) throws IOException {
+        return mapper.readValue(file, ApiDeclaration.class);
+    }
+
+    /**
+     * @return the listing written by {@link #serialize(Object)}
+     */
+    public ResourceListing readListing(InputStream in) throws IOException {
+        return mapper.readValue(in, ResourceListing.class);
+    }
+
+    public ResourceListing readListing(File file) throws IOException {
+        return mapper.readValue(file, ResourceListing.class);
+    }
+
+    public void write(JsonGenerator generator, Object document) throws IOException {
+        if (document instanceof ApiDeclaration) {
+            write(generator, (ApiDeclaration) document);
+        } else if (document instanceof ResourceListing) {
+            write(generator, (ResourceListing) document);
+        } else if (document instanceof Swagger2Document) {
+            write(generator, (Swagger2Document) document);
+        } else {
+            writer.writeValue(generator, document);
+        }
+    }
+
+    public void write(JsonGenerator generator, ResourceListing listing) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "swaggerVersion", listing.swaggerVersion);
+        if (listing.apis != null) {
+            generator.writeArrayFieldStart("apis");
+            for (ResourceObject resource : ordered(listing.apis, RESOURCE_ORDER)) {
+                write(generator, resource);
+            }
+            generator.writeEndArray();
+        }
+        writeString(generator, "apiVersion", listing.apiVersion);
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, ResourceObject resource) throws IOException {
+        if (resource == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeString(generator, "path", resource.path);
+        writeString(generator, "description", resource.description);
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, ApiDeclaration declaration) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "swaggerVersion", declaration.swaggerVersion);
+        writeString(generator, "apiVersion", declaration.apiVersion);
+        writeString(generator, "basePath", declaration.basePath);
+        writeString(generator, "resourcePath", declaration.resourcePath);
+        if (declaration.apis != null) {
+            generator.writeArrayFieldStart("apis");
+            for (ApiObject api : ordered(declaration.apis, API_ORDER)) {
+                write(generator, api);
+            }
+            generator.writeEndArray();
+        }
+        if (declaration.models != null) {
+            generator.writeObjectFieldStart("models");
+            for (Map.Entry<String, ModelObject> model : entries(declaration.models)) {
+                generator.writeFieldName(model.getKey());
+                write(generator, model.getValue());
+            }
+            generator.writeEndObject();
+        }
+        writeString(generator, "modelsPath", declaration.modelsPath);
+        writeStrings(generator, "modelIds", declaration.modelIds);
+        writeStrings(generator, "produces", declaration.produces);
+        writeStrings(generator, "consumes", declaration.consumes);
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, ApiObject api) throws IOException {
+        if (api == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeString(generator, "path", api.path);
+        writeString(generator, "description", api.description);
+        if (api.operations != null) {
+            generator.writeArrayFieldStart("operations");
+            for (OperationObject operation : ordered(api.operations, OPERATION_ORDER)) {
+                write(generator, operation);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, OperationObject operation) throws IOException {
+        if (operation == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeDataTypeFields(generator, operation);
+        writeString(generator, "method", operation.method);
+        writeString(generator, "summary", operation.summary);
+        writeString(generator, "notes", operation.notes);
+        writeString(generator, "nickname", operation.nickname);
+        if (operation.authorizations != null) {
+            generator.writeFieldName("authorizations");
+            writer.writeValue(generator, operation.authorizations);
+        }
+        writeParameters(generator, operation.parameters);
+        writeResponseMessages(generator, operation.responseMessages);
+        writeStrings(generator, "produces", operation.produces);
+        writeStrings(generator, "consumes", operation.consumes);
+        writeString(generator, "deprecated", operation.deprecated);
+        writeEnum(generator, operation);
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, ParameterObject parameter) throws IOException {
+        if (parameter == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeDataTypeFields(generator, parameter);
+        writeString(generator, "paramType", parameter.paramType);
+        writeString(generator, "name", parameter.name);
+        writeString(generator, "description", parameter.description);
+        generator.writeBooleanField("required", parameter.required);
+        generator.writeBooleanField("allowMultiple", parameter.allowMultiple);
+        writeEnum(generator, parameter);
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, ModelObject model) throws IOException {
+        if (model == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeString(generator, "id", model.id);
+        writeString(generator, "description", model.description);
+        writeStrings(generator, "required", model.required);
+        if (model.properties != null) {
+            generator.writeObjectFieldStart("properties");
+            for (Map.Entry<String, PropertyObject> property : entries(model.properties)) {
+                generator.writeFieldName(property.getKey());
+                write(generator, property.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, PropertyObject property) throws IOException {
+        if (property == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeDataTypeFields(generator, property);
+        writeString(generator, "description", property.description);
+        writeEnum(generator, property);
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, ItemsObject items) throws IOException {
+        if (items == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeItemsFields(generator, items);
+        generator.writeEndObject();
+    }
+
+    public void write(JsonGenerator generator, ResponseMessageObject responseMessage) throws IOException {
+        if (responseMessage == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeNumberField("code", responseMessage.code);
+        writeString(generator, "message", responseMessage.message);
+        writeString(generator, "responseModel", responseMessage.responseModel);
+        generator.writeEndObject();
+    }
+
+    private void writeParameters(JsonGenerator generator, List<ParameterObject> parameters) throws IOException {
+        if (parameters != null) {
+            generator.writeArrayFieldStart("parameters");
+            for (ParameterObject parameter : ordered(parameters, PARAMETER_ORDER)) {
+                write(generator, parameter);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeResponseMessages(JsonGenerator generator, List<ResponseMessageObject> responseMessages) throws IOException {
+        if (responseMessages != null) {
+            generator.writeArrayFieldStart("responseMessages");
+            for (ResponseMessageObject responseMessage : responseMessages) {
+                write(generator, responseMessage);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public void write(JsonGenerator generator, Swagger2Document document) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("swagger", "2.0");
+        generator.writeObjectFieldStart("info");
+        generator.writeStringField("title", (document.title == null) ? "" : document.title);
+        generator.writeStringField("version", (document.version == null) ? "" : document.version);
+        generator.writeEndObject();
+        writeString(generator, "host", document.host);
+        writeString(generator, "basePath", document.basePath);
+        writeStrings(generator, "schemes", document.schemes);
+        generator.writeArrayFieldStart("tags");
+        for (Map.Entry<String, String> tag : entries(document.tags)) {
+            generator.writeStartObject();
+            generator.writeStringField("name", tag.getKey());
+            writeString(generator, "description", tag.getValue());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("paths");
+        for (Map.Entry<String, Map<String, Swagger2Document.Operation>> path : entries(document.paths)) {
+            generator.writeObjectFieldStart(path.getKey());
+            for (Map.Entry<String, Swagger2Document.Operation> operation : entries(path.getValue())) {
+                generator.writeFieldName(operation.getKey());
+                write(generator, operation.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("definitions");
+        for (Map.Entry<String, Swagger2Document.Definition> definition : entries(document.definitions)) {
+            generator.writeFieldName(definition.getKey());
+            writeDefinition(generator, definition.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private void write(JsonGenerator generator, Swagger2Document.Operation operation) throws IOException {
+        OperationObject operationObject = operation.operation;
+        generator.writeStartObject();
+        writeStrings(generator, "tags", operation.tags.toArray(new String[operation.tags.size()]));
+        writeString(generator, "summary", operationObject.summary);
+        writeString(generator, "description", operationObject.notes);
+        writeString(generator, "operationId", operationObject.nickname);
+        writeStrings(generator, "consumes", operation.consumes);
+        writeStrings(generator, "produces", operation.produces);
+        if (operationObject.parameters != null && !operationObject.parameters.isEmpty()) {
+            generator.writeArrayFieldStart("parameters");
+            for (ParameterObject parameter : ordered(operationObject.parameters, PARAMETER_ORDER)) {
+                if (parameter != null) {
+                    writeParameter(generator, parameter, operation.names);
+                }
+            }
+            generator.writeEndArray();
+        }
+        writeResponses(generator, operationObject, operation.names);
+        if (operationObject.deprecated != null) { // the builders set it to "Deprecated"
+            generator.writeBooleanField("deprecated", true);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeParameter(JsonGenerator generator, ParameterObject parameter, Map<String, String> names) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "name", parameter.name);
+        generator.writeStringField("in", "form".equals(parameter.paramType) ? "formData" : parameter.paramType);
+        writeString(generator, "description", parameter.description);
+        generator.writeBooleanField("required", parameter.required || "path".equals(parameter.paramType));
+        if ("body".equals(parameter.paramType)) {
+            generator.writeFieldName("schema");
+            writeSchema(generator, parameter, null, names);
+        } else {
+            // only bodies may refer to models, the other parameters are sent as strings
+            String type = "File".equals(parameter.type) ? "file" : (model(parameter) != null) ? "string" : parameter.type;
+            writeString(generator, "type", type);
+            writeString(generator, "format", parameter.format);
+            if (parameter.items != null) {
+                generator.writeObjectFieldStart("items");
+                writeString(generator, "type", (parameter.items.$ref != null) ? "string" : parameter.items.type);
+                writeString(generator, "format", parameter.items.format);
+                generator.writeEndObject();
+            }
+            writeConstraints(generator, parameter);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeResponses(JsonGenerator generator, OperationObject operation, Map<String, String> names) throws IOException {
+        String description = "successful operation";
+        List<ResponseMessageObject> responseMessages = new ArrayList<ResponseMessageObject>();
+        if (operation.responseMessages != null) {
+            for (ResponseMessageObject responseMessage : ordered(operation.responseMessages, RESPONSE_ORDER)) {
+                if (responseMessage == null) {
+                    continue;
+                }
+                if (responseMessage.code == 200) {
+                    description = (responseMessage.message == null) ? "" : responseMessage.message;
+                } else {
+                    responseMessages.add(responseMessage);
+                }
+            }
+        }
+        generator.writeObjectFieldStart("responses");
+        generator.writeObjectFieldStart("200");
+        generator.writeStringField("description", description);
+        if (operation.$ref != null || (operation.type != null && !"void".equals(operation.type))) {
+            generator.writeFieldName("schema");
+            writeSchema(generator, operation, null, names);
+        }
+        generator.writeEndObject();
+        for (ResponseMessageObject responseMessage : responseMessages) {
+            generator.writeObjectFieldStart(String.valueOf(responseMessage.code));
+            generator.writeStringField("description", (responseMessage.message == null) ? "" : responseMessage.message);
+            if (responseMessage.responseModel != null) {
+                generator.writeObjectFieldStart("schema");
+                generator.writeStringField("$ref", DEFINITIONS + Swagger2Document.name(names, responseMessage.responseModel));
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeDefinition(JsonGenerator generator, Swagger2Document.Definition definition) throws IOException {
+        ModelObject model = definition.model;
+        generator.writeStartObject();
+        generator.writeStringField("type", "object");
+        writeString(generator, "description", model.description);
+        writeStrings(generator, "required", model.required);
+        if (model.properties != null) {
+            generator.writeObjectFieldStart("properties");
+            for (Map.Entry<String, PropertyObject> property : entries(model.properties)) {
+                if (property.getValue() != null) {
+                    generator.writeFieldName(property.getKey());
+                    writeSchema(generator, property.getValue(), property.getValue().description, definition.names);
+                }
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the Swagger 2.0 schema of a data type, models being referred to
+     * in the <code>definitions</code> section and maps described by the type
+     * of their values.
+     */
+    private static void writeSchema(JsonGenerator generator, DataTypeFields fields, String description,
+                                    Map<String, String> names) throws IOException {
+        generator.writeStartObject();
+        String model = model(fields);
+        if (fields.additionalProperties != null) {
+            writeMap(generator, fields.additionalProperties, names);
+            writeString(generator, "description", description);
+        } else if (model != null) {
+            generator.writeStringField("$ref", DEFINITIONS + Swagger2Document.name(names, model));
+        } else {
+            writeString(generator, "type", fields.type);
+            writeString(generator, "format", fields.format);
+            writeString(generator, "description", description);
+            if (fields.items != null) {
+                generator.writeObjectFieldStart("items");
+                if (fields.items.additionalProperties != null) {
+                    writeMap(generator, fields.items.additionalProperties, names);
+                } else if (fields.items.$ref != null) {
+                    generator.writeStringField("$ref", DEFINITIONS + Swagger2Document.name(names, fields.items.$ref));
+                } else {
+                    writeString(generator, "type", fields.items.type);
+                    writeString(generator, "format", fields.items.format);
+                }
+                generator.writeEndObject();
+            }
+            writeConstraints(generator, fields);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeMap(JsonGenerator generator, DataTypeFields values, Map<String, String> names) throws IOException {
+        generator.writeStringField("type", "object");
+        generator.writeFieldName("additionalProperties");
+        writeSchema(generator, values, null, names);
+    }
+
+    /**
+     * @return the id of the model a data type refers to, Swagger 1.2 also
+     * gives it as the type of parameters and operations
+     */
+    private static String model(DataTypeFields fields) {
+        if (fields.$ref != null) {
+            return fields.$ref;
+        }
+        return (fields.type == null || TYPES.contains(fields.type)) ? null : fields.type;
+    }
+
+    private static void writeConstraints(JsonGenerator generator, DataTypeFields fields) throws IOException {
+        if (fields.uniqueItems) {
+            generator.writeBooleanField("uniqueItems", true);
+        }
+        writeString(generator, "default", fields.defaultValue);
+        writeNumber(generator, "minimum", fields.minimum);
+        writeNumber(generator, "maximum", fields.maximum);
+        writeStrings(generator, "enum", fields.enun);
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            try {
+                Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return; // not a number, Swagger 2.0 has no place for it
+            }
+            generator.writeFieldName(name);
+            generator.writeNumber(value);
+        }
+    }
+
+    private <T> List<T> ordered(List<T> values, Comparator<? super T> order) {
+        if (!canonical) {
+            return values;
+        }
+        List<T> sorted = new ArrayList<T>(values);
+        Collections.sort(sorted, nullsFirst(order));
+        return sorted;
+    }
+
+    private <V> Collection<Map.Entry<String, V>> entries(Map<String, V> values) {
+        return canonical ? new TreeMap<String, V>(values).entrySet() : values.entrySet();
+    }
+
+    private static <T> Comparator<T> nullsFirst(final Comparator<T> order) {
+        return new Comparator<T>() {
+            public int compare(T first, T second) {
+                if (first == null || second == null) {
+                    return (first == null) ? ((second == null) ? 0 : -1) : 1;
+                }
+                return order.compare(first, second);
+            }
+        };
+    }
+
+    private static int compareStrings(String first, String second) {
+        if (first == null || second == null) {
+            return (first == null) ? ((second == null) ? 0 : -1) : 1;
+        }
+        return first.compareTo(second);
+    }
+
+    private static void writeItemsFields(JsonGenerator generator, ItemsObject items) throws IOException {
+        writeString(generator, "type", items.type);
+        writeString(generator, "$ref", items.$ref);
+        writeString(generator, "format", items.format);
+    }
+
+    /**
+     * Writes the fields of {@link DataTypeFields} but <code>enum</code>,
+     * which is written by {@link #writeEnum(JsonGenerator, DataTypeFields)}
+     * after the fields of the subclass.
+     */
+    private void writeDataTypeFields(JsonGenerator generator, DataTypeFields fields) throws IOException {
+        writeItemsFields(generator, fields);
+        writeString(generator, "defaultValue", fields.defaultValue);
+        writeString(generator, "minimum", fields.minimum);
+        writeString(generator, "maximum", fields.maximum);
+        if (fields.items != null) {
+            generator.writeFieldName("items");
+            write(generator, fields.items);
+        }
+        if (fields.uniqueItems) {
+            generator.writeBooleanField("uniqueItems", true);
+        }
+    }
+
+    private static void writeEnum(JsonGenerator generator, DataTypeFields fields) throws IOException {
+        writeStrings(generator, "enum", fields.enun);
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static void writeStrings(JsonGenerator generator, String name, String[] values) throws IOException {
+        if (values != null) {
+            generator.writeArrayFieldStart(name);
+            for (String value : values) {
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(value);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+}
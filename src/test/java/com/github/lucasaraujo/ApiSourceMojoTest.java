@@ -0,0 +1,502 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class ApiSourceMojoTest {
+
+    private static final String HEADER = "package sample;\n"
+            + "import br.com.caelum.vraptor.*;\n"
+            + "import com.wordnik.swagger.annotations.*;\n";
+
+    private static final String CUSTOMER = HEADER
+            + "public class Customer {\n"
+            + "    public String name;\n"
+            + "}\n";
+
+    private static final String ADMIN = HEADER
+            + "@Api(\"/admin\") @Path(\"/admin\")\n"
+            + "public class AdminController {\n"
+            + "    @Post @Consumes(\"application/json\") @ApiOperation(\"update\")\n"
+            + "    public void update(Customer c) {}\n"
+            + "}\n";
+
+    private static final String CUSTOMERS = HEADER
+            + "@Api(\"/customers\") @Path(\"/customers\")\n"
+            + "public class CustomerController {\n"
+            + "    @Post @Consumes(\"application/json\") @ApiOperation(\"save\")\n"
+            + "    public void save(Customer customer) {}\n"
+            + "    @Get(\"/{id}\") @ApiOperation(value = \"find\", response = Customer.class)\n"
+            + "    public Customer find(Long id) { return null; }\n"
+            + "}\n";
+
+    private static final String REPORTS = HEADER
+            + "@Api(\"/reports\") @Path(\"/reports\")\n"
+            + "public class ReportController {\n"
+            + "    @Get(\"/{id}\") @ApiOperation(value = \"find\", response = Customer.class)\n"
+            + "    public Customer find(Long id) { return null; }\n"
+            + "}\n";
+
+    private static final String BASE = HEADER
+            + "public abstract class BaseController {\n"
+            + "    @Get(\"/{id}\") @ApiOperation(value = \"find\", response = Customer.class)\n"
+            + "    public Customer find(Long id) { return null; }\n"
+            + "}\n";
+
+    private static final String ORDERS = HEADER
+            + "@Api(\"/orders\") @Path(\"/orders\")\n"
+            + "public class OrderController extends BaseController {\n"
+            + "    public enum Status { OPEN, CLOSED }\n"
+            + "    @Get(\"/status\") @ApiOperation(\"list\")\n"
+            + "    public void list(Status status) {}\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, String> sources = new TreeMap<String, String>();
+    private File classes;
+
+    @Before
+    public void setUp() throws Exception {
+        classes = folder.newFolder("classes");
+        sources.put("Customer", CUSTOMER);
+        sources.put("AdminController", ADMIN);
+        sources.put("CustomerController", CUSTOMERS);
+        sources.put("ReportController", REPORTS);
+    }
+
+    @Test
+    public void it_should_share_the_models_that_do_not_conflict() throws Exception {
+        compile();
+        File docs = folder.newFolder("docs");
+        ApiSourceMojo mojo = mojo(docs, folder.newFolder("work"));
+        mojo.setSharedModels(true);
+        mojo.execute();
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode shared = mapper.readTree(new File(docs, "service.models"));
+        assertEquals(Arrays.asList("$Customer", "Customer"), names(shared.get("models")));
+        assertEquals("c", shared.get("models").get("$Customer").get("required").get(0).getTextValue());
+
+        JsonNode admin = mapper.readTree(new File(docs, "admin"));
+        assertFalse(admin.has("models"));
+        assertEquals("/service.models", admin.get("modelsPath").getTextValue());
+        assertEquals("[\"$Customer\",\"Customer\"]", admin.get("modelIds").toString());
+        // its body wrapper names another parameter
+        JsonNode customers = mapper.readTree(new File(docs, "customers"));
+        assertFalse(customers.has("modelsPath"));
+        assertEquals("customer", customers.get("models").get("$Customer").get("required").get(0).getTextValue());
+        JsonNode reports = mapper.readTree(new File(docs, "reports"));
+        assertEquals("[\"Customer\"]", reports.get("modelIds").toString());
+    }
+
+    @Test
+    public void it_should_write_the_same_shared_models_incrementally() throws Exception {
+        compile();
+        File docs = folder.newFolder("docs");
+        File work = folder.newFolder("work");
+        ApiSourceMojo mojo = mojo(docs, work);
+        mojo.setSharedModels(true);
+        mojo.execute();
+
+        // the first sharer of $Customer goes away, the next one can share its own
+        sources.remove("AdminController");
+        sources.put("ReportController", REPORTS.replace("find", "show"));
+        compile();
+        mojo.execute();
+
+        File full = folder.newFolder("full");
+        ApiSourceMojo fullMojo = mojo(full, folder.newFolder("fullWork"));
+        fullMojo.setSharedModels(true);
+        fullMojo.execute();
+        assertSameFiles(full, docs);
+        assertEquals("customer", new ObjectMapper().readTree(new File(docs, "service.models"))
+                .get("models").get("$Customer").get("required").get(0).getTextValue());
+    }
+
+    @Test
+    public void it_should_skip_the_unchanged_controllers() throws Exception {
+        compile();
+        File docs = folder.newFolder("docs");
+        ApiSourceMojo mojo = mojo(docs, folder.newFolder("work"));
+        mojo.execute();
+        Map<String, String> generated = files(docs);
+
+        RecordingLog log = new RecordingLog();
+        mojo.setLog(log);
+        mojo.execute();
+        assertTrue(log.infos.toString(), log.infos.contains("Generated 0 of 3 API classes, 0 files written and 0 unchanged"));
+        assertEquals(generated, files(docs));
+
+        sources.put("ReportController", REPORTS.replace("find", "show"));
+        compile();
+        log.infos.clear();
+        mojo.execute();
+        assertTrue(log.infos.toString(), log.infos.contains("Generated 1 of 3 API classes, 1 files written and 1 unchanged"));
+        assertTrue(FileUtils.fileRead(new File(docs, "reports")).contains("\"nickname\":\"show\""));
+    }
+
+    @Test
+    public void it_should_generate_everything_again_when_the_configuration_changed() throws Exception {
+        compile();
+        ApiSourceMojo mojo = mojo(folder.newFolder("docs"), folder.newFolder("work"));
+        PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setVersion("1.0");
+        set(mojo, "plugin", plugin);
+        mojo.setTitle("Sample");
+        mojo.execute();
+
+        RecordingLog log = new RecordingLog();
+        mojo.setLog(log);
+        mojo.setTitle("Samples");
+        mojo.execute();
+        assertTrue(log.infos.toString(), log.infos.toString().contains("Generated 3 of 3 API classes,"));
+
+        log.infos.clear();
+        mojo.setManifest(true);
+        mojo.execute();
+        assertTrue(log.infos.toString(), log.infos.toString().contains("Generated 3 of 3 API classes,"));
+
+        log.infos.clear();
+        plugin.setVersion("1.1");
+        mojo.execute();
+        assertTrue(log.infos.toString(), log.infos.toString().contains("Generated 3 of 3 API classes,"));
+
+        log.infos.clear();
+        mojo.execute();
+        assertTrue(log.infos.toString(), log.infos.toString().contains("Generated 0 of 3 API classes,"));
+    }
+
+    @Test
+    public void it_should_only_warn_about_the_nicknames_clients_can_not_tell_apart() throws Exception {
+        sources.put("ReportController", REPORTS.replace("public Customer find(Long id) { return null; }",
+                "public Customer find(Long id) { return null; }\n"
+                        + "    @Get(\"/dates\") @ApiOperation(\"date\") public void date(java.util.Date date) {}\n"
+                        + "    @Get(\"/sqlDates\") @ApiOperation(\"date\") public void date(java.sql.Date date) {}\n"));
+        compile();
+        ApiSourceMojo mojo = mojo(folder.newFolder("docs"), folder.newFolder("work"));
+        RecordingLog log = new RecordingLog();
+        mojo.setLog(log);
+        mojo.execute();
+        assertEquals(Collections.singletonList("Operation nickname date_Date is used by several operations of sample.ReportController"),
+                log.warnings);
+
+        log.warnings.clear();
+        mojo.setSwagger2(true);
+        mojo.execute();
+        assertTrue(log.warnings.toString(), log.warnings.contains("Operation nickname find of sample.ReportController is also used by"
+                + " sample.CustomerController, operation ids must be unique in the Swagger 2.0 document"));
+    }
+
+    @Test
+    public void it_should_regenerate_the_controllers_whose_superclass_changed() throws Exception {
+        sources.put("BaseController", BASE);
+        sources.put("OrderController", ORDERS);
+        compile();
+        File docs = folder.newFolder("docs");
+        ApiSourceMojo mojo = mojo(docs, folder.newFolder("work"));
+        mojo.execute();
+        assertTrue(FileUtils.fileRead(new File(docs, "orders")).contains("\"summary\":\"find\""));
+
+        sources.put("BaseController", BASE.replace("value = \"find\"", "value = \"search\""));
+        compile();
+        mojo.execute();
+        assertTrue(FileUtils.fileRead(new File(docs, "orders")).contains("\"summary\":\"search\""));
+    }
+
+    @Test
+    public void it_should_regenerate_the_controllers_whose_enums_changed() throws Exception {
+        sources.put("BaseController", BASE);
+        sources.put("OrderController", ORDERS);
+        compile();
+        File docs = folder.newFolder("docs");
+        ApiSourceMojo mojo = mojo(docs, folder.newFolder("work"));
+        mojo.execute();
+
+        sources.put("OrderController", ORDERS.replace("CLOSED }", "CLOSED, CANCELLED }"));
+        compile();
+        mojo.execute();
+        assertTrue(FileUtils.fileRead(new File(docs, "orders")).contains("\"CANCELLED\""));
+    }
+
+    @Test
+    public void it_should_delete_the_declarations_of_removed_controllers() throws Exception {
+        compile();
+        File docs = folder.newFolder("docs");
+        ApiSourceMojo mojo = mojo(docs, folder.newFolder("work"));
+        mojo.execute();
+        assertTrue(new File(docs, "reports").isFile());
+
+        sources.remove("ReportController");
+        compile();
+        mojo.execute();
+        assertFalse(new File(docs, "reports").exists());
+        assertFalse(FileUtils.fileRead(new File(docs, "service")).contains("/reports"));
+    }
+
+    @Test
+    public void it_should_delete_the_files_of_the_previous_configuration() throws Exception {
+        compile();
+        File docs = folder.newFolder("docs");
+        File work = folder.newFolder("work");
+        ApiSourceMojo mojo = mojo(docs, work);
+        mojo.execute();
+
+        mojo.useOutputFlatStructure = false;
+        mojo.execute();
+        assertEquals(new TreeSet<String>(Arrays.asList("service", "admin.json", "customers.json", "reports.json")), files(docs).keySet());
+
+        mojo.setBundle(true);
+        mojo.setIncremental(false);
+        mojo.execute();
+        assertEquals(Collections.singleton("service.bundle"), files(docs).keySet());
+
+        mojo.setBundle(false);
+        mojo.useOutputFlatStructure = true;
+        mojo.execute();
+        assertEquals(new TreeSet<String>(Arrays.asList("service", "admin", "customers", "reports")), files(docs).keySet());
+    }
+
+    @Test
+    public void it_should_fail_when_two_resources_get_the_same_file() throws Exception {
+        sources.put("AdminController", ADMIN.replace("/admin", "/admin."));
+        sources.put("ReportController", REPORTS.replace("/reports", "/admin_"));
+        compile();
+        ApiSourceMojo mojo = mojo(folder.newFolder("docs"), folder.newFolder("work"));
+        mojo.useOutputFlatStructure = false;
+        try {
+            mojo.execute();
+            fail();
+        } catch (MojoExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("/admin_.json of sample.ReportController is also written for sample.AdminController"));
+        }
+    }
+
+    @Test
+    public void it_should_reuse_the_bundle_entries_of_unchanged_controllers() throws Exception {
+        compile();
+        File docs = folder.newFolder("docs");
+        ApiSourceMojo mojo = mojo(docs, folder.newFolder("work"));
+        mojo.setBundle(true);
+        mojo.execute();
+
+        sources.put("ReportController", REPORTS.replace("find", "show"));
+        compile();
+        RecordingLog log = new RecordingLog();
+        mojo.setLog(log);
+        mojo.execute();
+        assertTrue(log.infos.toString(), log.infos.contains("Generated 1 of 3 API classes, 1 files written and 0 unchanged"));
+
+        File full = folder.newFolder("full");
+        ApiSourceMojo fullMojo = mojo(full, folder.newFolder("fullWork"));
+        fullMojo.setBundle(true);
+        fullMojo.execute();
+        assertSameFiles(full, docs);
+    }
+
+    @Test
+    public void it_should_keep_the_map_values_of_unchanged_controllers_in_the_swagger2_document() throws Exception {
+        sources.put("Customer", CUSTOMER.replace("public String name;",
+                "public java.util.Map<String, java.util.List<Customer>> friends;"));
+        for (boolean sharedModels : new boolean[]{false, true}) {
+            sources.put("ReportController", REPORTS);
+            compile();
+            File docs = folder.newFolder("docs" + sharedModels);
+            ApiSourceMojo mojo = mojo(docs, folder.newFolder("work" + sharedModels));
+            mojo.setSharedModels(sharedModels);
+            mojo.setSwagger2(true);
+            mojo.execute();
+            assertFalse(FileUtils.fileRead(new File(docs, "customers")).contains("additionalProperties"));
+
+            sources.put("ReportController", REPORTS.replace("find", "show"));
+            compile();
+            mojo.execute();
+
+            File full = folder.newFolder("full" + sharedModels);
+            ApiSourceMojo fullMojo = mojo(full, folder.newFolder("fullWork" + sharedModels));
+            fullMojo.setSharedModels(sharedModels);
+            fullMojo.setSwagger2(true);
+            fullMojo.execute();
+            assertSameFiles(full, docs);
+            JsonNode friends = new ObjectMapper().readTree(new File(docs, "swagger.json"))
+                    .get("definitions").get("Customer").get("properties").get("friends");
+            assertEquals("#/definitions/Customer", friends.get("additionalProperties").get("items").get("$ref").getTextValue());
+        }
+    }
+
+    @Test
+    public void it_should_write_the_same_bytes_whatever_the_number_of_threads() throws Exception {
+        sources.put("BaseController", BASE);
+        sources.put("OrderController", ORDERS);
+        compile();
+        for (int variant = 0; variant < 3; ++variant) {
+            File sequential = folder.newFolder("sequential" + variant);
+            ApiSourceMojo mojo = configure(mojo(sequential, folder.newFolder("sequentialWork" + variant)), variant);
+            mojo.execute();
+
+            File parallel = folder.newFolder("parallel" + variant);
+            ApiSourceMojo parallelMojo = configure(mojo(parallel, folder.newFolder("parallelWork" + variant)), variant);
+            parallelMojo.setGenerateThreads(4);
+            parallelMojo.execute();
+            assertSameFiles(sequential, parallel);
+        }
+    }
+
+    private static List<String> names(JsonNode node) {
+        List<String> names = new ArrayList<String>();
+        for (java.util.Iterator<String> fieldNames = node.getFieldNames(); fieldNames.hasNext(); ) {
+            names.add(fieldNames.next());
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Compiles the sources to a clean class directory.
+     */
+    private void compile() throws Exception {
+        FileUtils.cleanDirectory(classes);
+        List<JavaFileObject> files = new ArrayList<JavaFileObject>();
+        for (final Map.Entry<String, String> source : sources.entrySet()) {
+            files.add(new SimpleJavaFileObject(URI.create("string:///sample/" + source.getKey() + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source.getValue();
+                }
+            });
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+                Arrays.asList("-g", "-proc:none", "-d", classes.getPath(), "-classpath", System.getProperty("java.class.path")),
+                null, files);
+        assertTrue(task.call());
+    }
+
+    private ApiSourceMojo mojo(File docs, File work) throws Exception {
+        ApiSourceMojo mojo = new ApiSourceMojo();
+        mojo.useOutputFlatStructure = true;
+        mojo.setApiVersion("1.0");
+        mojo.setBasePath("/");
+        mojo.setLocations(new String[]{"sample"});
+        mojo.setSwaggerDirectory(docs);
+        mojo.setWorkDirectory(work);
+        mojo.setIncremental(true);
+        mojo.setScanOutputOnly(true);
+        mojo.setScanCache(false);
+        mojo.setGenerateThreads(1);
+        set(mojo, "classpathElements", Collections.singletonList(classes.getPath()));
+        set(mojo, "outputDirectory", classes);
+        return mojo;
+    }
+
+    /**
+     * @return the mojo configured with the outputs of the given variant:
+     * plain documents, everything in a bundle or the models shared (the
+     * manifest is left out, it records when the files were written)
+     */
+    private static ApiSourceMojo configure(ApiSourceMojo mojo, int variant) {
+        if (variant == 1) {
+            mojo.setBundle(true);
+            mojo.setSmile(true);
+            mojo.setSwagger2(true);
+        } else if (variant == 2) {
+            mojo.setSharedModels(true);
+            mojo.setGzip(true);
+            mojo.useOutputFlatStructure = false;
+        }
+        return mojo;
+    }
+
+    private static void set(ApiSourceMojo mojo, String name, Object value) throws Exception {
+        Field field = ApiSourceMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(mojo, value);
+    }
+
+    /**
+     * @return the content of every file below the directory, by relative path
+     */
+    private static Map<String, String> files(File directory) throws Exception {
+        Map<String, String> files = new TreeMap<String, String>();
+        for (Object file : FileUtils.getFiles(directory, "**", null, false)) {
+            files.put(file.toString(), FileUtils.fileRead(new File(directory, file.toString()), "ISO-8859-1"));
+        }
+        return files;
+    }
+
+    private static class RecordingLog extends SystemStreamLog {
+
+        final List<String> infos = new ArrayList<String>();
+        final List<String> warnings = new ArrayList<String>();
+
+        @Override
+        public void info(CharSequence content) {
+            infos.add(content.toString());
+        }
+
+        @Override
+        public void warn(CharSequence content) {
+            warnings.add(content.toString());
+        }
+
+        @Override
+        public void debug(CharSequence content) {
+        }
+
+    }
+
+    private static void assertSameFiles(File expected, File actual) throws Exception {
+        Map<String, String> expectedFiles = files(expected);
+        Map<String, String> actualFiles = files(actual);
+        assertEquals(expectedFiles.keySet(), actualFiles.keySet());
+        for (Map.Entry<String, String> file : expectedFiles.entrySet()) {
+            assertEquals(file.getKey(), file.getValue(), actualFiles.get(file.getKey()));
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OutputLayoutTest {
+
+    @Test
+    public void it_should_keep_flat_paths() {
+        assertEquals("/users_admin", new OutputLayout(true, 2).location("/users_admin"));
+    }
+
+    @Test
+    public void it_should_mirror_the_resource_path() {
+        OutputLayout layout = new OutputLayout(false, 0);
+        assertEquals("/users.json", layout.location("/users"));
+        assertEquals("/users/admin.json", layout.location("/users/admin"));
+        assertEquals("/users/_id_/orders.json", layout.location("/users/{id}/orders"));
+        assertEquals("/_.json", layout.location("/"));
+    }
+
+    @Test
+    public void it_should_shard_by_hash_prefix() {
+        OutputLayout layout = new OutputLayout(false, 2);
+        String location = layout.location("/users/admin");
+        assertTrue(location, location.matches("/[0-9a-f]{2}/users/admin\\.json"));
+        assertEquals(location, layout.location("/users/admin"));
+    }
+
+    @Test
+    public void it_should_tell_who_claimed_a_location_first() {
+        OutputLayout layout = new OutputLayout(false, 0);
+        assertNull(layout.claim(layout.location("/a-b"), "sample.First"));
+        assertNull(layout.claim(layout.location("/users/{id}"), "sample.First"));
+        assertEquals("sample.First", layout.claim(layout.location("/users/_id_"), "sample.Second"));
+        assertEquals("sample.First", layout.claim(layout.location("/A-B"), "sample.Second"));
+        assertNull(layout.claim(layout.location("/a.b/c"), "sample.Second"));
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo;
+
+import com.wordnik.swagger.annotations.Api;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ProjectClassLoaderTest {
+
+    @Test
+    public void it_should_share_the_annotations_with_the_plugin() throws Exception {
+        String testClasses = new File(getClass().getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        ProjectClassLoader classLoader = new ProjectClassLoader(Collections.singletonList(testClasses), getClass().getClassLoader());
+        try {
+            Class<?> controller = classLoader.loadClass(SampleController.class.getName());
+            assertNotSame(SampleController.class, controller);
+            assertSame(classLoader, controller.getClassLoader());
+            assertNotNull(controller.getAnnotation(Api.class));
+            assertSame(String.class, classLoader.loadClass(String.class.getName()));
+        } finally {
+            classLoader.close();
+        }
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void it_should_not_expose_other_plugin_classes() throws Exception {
+        ProjectClassLoader classLoader = new ProjectClassLoader(Collections.<String>emptyList(), getClass().getClassLoader());
+        try {
+            classLoader.loadClass(Test.class.getName());
+        } finally {
+            classLoader.close();
+        }
+    }
+
+    @Api("sample")
+    public static class SampleController {
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.incremental;
+
+import com.github.lucasaraujo.incremental.BuildState.ControllerState;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BuildStateTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void it_should_only_reuse_the_state_of_the_same_configuration() throws Exception {
+        File file = new File(folder.getRoot(), "state/build-state.json");
+        BuildState state = new BuildState("flat");
+        state.outputs.add("/service");
+        state.controllers.put("sample.OrderController", new ControllerState());
+        state.write(file);
+
+        assertEquals("flat", BuildState.read(file, "flat").configuration);
+        assertNull(BuildState.read(file, "hierarchical"));
+        BuildState recorded = BuildState.read(file);
+        assertEquals("flat", recorded.configuration);
+        assertEquals(state.outputs, recorded.outputs);
+        assertTrue(recorded.controllers.containsKey("sample.OrderController"));
+    }
+
+    @Test
+    public void it_should_ignore_missing_and_corrupted_states() throws Exception {
+        File file = new File(folder.getRoot(), "build-state.json");
+        assertNull(BuildState.read(file));
+        FileUtils.fileWrite(file.getPath(), "{\"controllers\":");
+        assertNull(BuildState.read(file, "flat"));
+    }
+
+    @Test
+    public void it_should_detect_changed_and_removed_dependencies() throws Exception {
+        File classes = folder.newFolder("classes");
+        File order = new File(classes, "sample/Order.class");
+        order.getParentFile().mkdirs();
+        FileUtils.fileWrite(order.getPath(), "first");
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, null);
+        try {
+            ControllerState controller = new ControllerState();
+            controller.addDependencies(classLoader, Arrays.asList("sample.Order"));
+            assertTrue(controller.isUpToDate(classLoader));
+
+            FileUtils.fileWrite(order.getPath(), "second");
+            assertFalse(controller.isUpToDate(classLoader));
+
+            controller.addDependencies(classLoader, Arrays.asList("sample.Order"));
+            assertTrue(controller.isUpToDate(classLoader));
+            order.delete();
+            assertFalse(controller.isUpToDate(classLoader));
+        } finally {
+            classLoader.close();
+        }
+    }
+
+}
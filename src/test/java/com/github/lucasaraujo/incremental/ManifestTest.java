@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.incremental;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class ManifestTest {
+
+    @Test
+    public void it_should_keep_the_time_of_unchanged_documents() throws IOException {
+        Manifest previous = new Manifest();
+        previous.put("/one", "{\"a\":1}".getBytes("UTF-8"));
+        previous.put("/two", "{\"b\":1}".getBytes("UTF-8"));
+        previous.stamp(null, 1000L);
+
+        Manifest manifest = new Manifest();
+        manifest.put("/one", "{\"a\":1}".getBytes("UTF-8"));
+        manifest.put("/two", "{\"b\":2}".getBytes("UTF-8"));
+        manifest.put("/three", "{}".getBytes("UTF-8"));
+        manifest.stamp(previous, 2000L);
+
+        assertEquals(1000L, manifest.documents.get("/one").lastModified);
+        assertEquals(2000L, manifest.documents.get("/two").lastModified);
+        assertEquals(2000L, manifest.documents.get("/three").lastModified);
+        assertEquals(Checksums.sha1("{}".getBytes("UTF-8")), manifest.documents.get("/three").sha1);
+        assertEquals(2L, manifest.documents.get("/three").size);
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.incremental;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class OutputWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void it_should_write_only_changed_files() throws IOException {
+        File file = new File(folder.getRoot(), "api/service");
+        OutputWriter output = new OutputWriter();
+        assertTrue(output.write(file, "{\"a\":1}".getBytes("UTF-8")));
+        file.setLastModified(1000L);
+
+        assertFalse(output.write(file, "{\"a\":1}".getBytes("UTF-8")));
+        assertEquals(1000L, file.lastModified());
+
+        assertTrue(output.write(file, "{\"a\":2}".getBytes("UTF-8")));
+        assertEquals("{\"a\":2}", FileUtils.fileRead(file, "UTF-8"));
+        assertEquals(2, output.written());
+        assertEquals(1, output.skipped());
+        assertArrayEquals(new String[]{"service"}, file.getParentFile().list());
+    }
+
+    @Test
+    public void it_should_write_compressed_siblings() throws IOException {
+        File file = new File(folder.getRoot(), "service");
+        File compressed = new File(folder.getRoot(), "service.gz");
+        OutputWriter output = new OutputWriter(true);
+        output.write(file, "{\"a\":1}".getBytes("UTF-8"));
+        GZIPInputStream in = new GZIPInputStream(new FileInputStream(compressed));
+        try {
+            assertEquals("{\"a\":1}", IOUtil.toString(in, "UTF-8"));
+        } finally {
+            in.close();
+        }
+        String first = FileUtils.fileRead(compressed, "ISO-8859-1");
+        compressed.delete();
+        output.write(file, "{\"a\":1}".getBytes("UTF-8"));
+        assertEquals(first, FileUtils.fileRead(compressed, "ISO-8859-1"));
+
+        new OutputWriter(false).write(file, "{\"a\":1}".getBytes("UTF-8"));
+        assertFalse(compressed.exists());
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import br.com.caelum.vraptor.Path;
+import com.github.lucasaraujo.incremental.Checksums;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ApiClassScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String inspect(Class<?> clazz) throws IOException {
+        InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+        try {
+            return new ClassFileInspector(Api.class.getName()).annotatedClassName(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static File testClassesDirectory() throws URISyntaxException {
+        return new File(ApiClassScannerTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Test
+    public void it_should_inspect_annotated_classes() throws IOException {
+        assertEquals(AnnotatedController.class.getName(), inspect(AnnotatedController.class));
+        assertEquals(ConstantsController.class.getName(), inspect(ConstantsController.class));
+    }
+
+    @Test
+    public void it_should_ignore_classes_without_the_annotation() throws IOException {
+        assertNull(inspect(PlainController.class));
+        assertNull(inspect(MethodAnnotatedController.class));
+    }
+
+    @Test
+    public void it_should_scan_directories() throws IOException, URISyntaxException {
+        String[] locations = {ApiClassScannerTest.class.getName()};
+        Set<String> classes = new ApiClassScanner(locations).scan(Collections.singletonList(testClassesDirectory()));
+        assertEquals(2, classes.size());
+        assertTrue(classes.contains(AnnotatedController.class.getName()));
+        assertTrue(classes.contains(ConstantsController.class.getName()));
+    }
+
+    @Test
+    public void it_should_skip_the_class_files_it_can_not_read() throws IOException {
+        File root = folder.newFolder("classes");
+        String entryName = AnnotatedController.class.getName().replace('.', '/') + ".class";
+        InputStream in = AnnotatedController.class.getResourceAsStream("/" + entryName);
+        byte[] content;
+        try {
+            content = IOUtil.toByteArray(in);
+        } finally {
+            in.close();
+        }
+        File directory = new File(root, "sample");
+        assertTrue(directory.mkdirs());
+        writeBytes(new File(directory, "Valid.class"), content);
+        byte[] truncated = new byte[content.length / 2];
+        System.arraycopy(content, 0, truncated, 0, truncated.length);
+        writeBytes(new File(directory, "Truncated.class"), truncated);
+        byte[] unknownTag = content.clone();
+        unknownTag[10] = 99; // the tag of the first constant
+        writeBytes(new File(directory, "Unknown.class"), unknownTag);
+
+        ApiClassScanner scanner = new ApiClassScanner(new String[]{"sample"});
+        assertEquals(Collections.singleton(AnnotatedController.class.getName()), scanner.scan(Collections.singletonList(root)));
+        List<String> skipped = scanner.skipped();
+        assertEquals(2, skipped.size());
+        assertTrue(skipped.get(0), skipped.get(0).contains("Truncated.class"));
+        assertTrue(skipped.get(1), skipped.get(1).contains("Unknown.class") && skipped.get(1).contains("tag 99"));
+    }
+
+    private static void writeBytes(File file, byte[] content) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    @Test
+    public void it_should_scan_roots_concurrently() throws IOException, URISyntaxException {
+        String[] locations = {"com.github.lucasaraujo"};
+        File mainClasses = new File(ApiClassScanner.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<File> roots = Arrays.asList(testClassesDirectory(), mainClasses, new File("missing.jar"));
+        Set<String> sequential = new ApiClassScanner(locations, 1, null).scan(roots);
+        Set<String> concurrent = new ApiClassScanner(locations, 4, null).scan(roots);
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, concurrent);
+    }
+
+    private File controllersJar() throws IOException {
+        File jar = folder.newFile("controllers.jar");
+        String entryName = AnnotatedController.class.getName().replace('.', '/') + ".class";
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+        try {
+            out.putNextEntry(new ZipEntry(entryName));
+            InputStream in = AnnotatedController.class.getResourceAsStream("/" + entryName);
+            try {
+                IOUtil.copy(in, out);
+            } finally {
+                in.close();
+            }
+        } finally {
+            out.close();
+        }
+        return jar;
+    }
+
+    @Test
+    public void it_should_reuse_jar_scans_by_checksum() throws IOException {
+        File jar = controllersJar();
+        JarScanCache cache = new JarScanCache();
+        String[] locations = {ApiClassScannerTest.class.getName()};
+        List<File> roots = Collections.singletonList(jar);
+        assertEquals(Collections.singleton(AnnotatedController.class.getName()), new ApiClassScanner(locations, 1, cache).scan(roots));
+        assertEquals(1, cache.size());
+
+        // the second scan only looks the jar up by its checksum
+        cache.put(cache.checksum(jar), Arrays.toString(locations), Collections.singleton("cached"));
+        assertEquals(Collections.singleton("cached"), new ApiClassScanner(locations, 1, cache).scan(roots));
+    }
+
+    @Test
+    public void it_should_store_jar_scans_on_disk() throws IOException {
+        File jar = controllersJar();
+        File directory = folder.newFolder("scans");
+        String[] locations = {ApiClassScannerTest.class.getName()};
+        String[] otherLocations = {"org.company"};
+        List<File> roots = Collections.singletonList(jar);
+        new ApiClassScanner(locations, 1, new JarScanCache(directory)).scan(roots);
+        new ApiClassScanner(otherLocations, 1, new JarScanCache(directory)).scan(roots);
+
+        JarScanCache cache = new JarScanCache(directory);
+        String checksum = cache.checksum(jar);
+        assertEquals(Collections.singleton(AnnotatedController.class.getName()), cache.get(checksum, Arrays.toString(locations)));
+        assertEquals(Collections.<String>emptySet(), cache.get(checksum, Arrays.toString(otherLocations)));
+        assertNull(cache.get("unknown", Arrays.toString(locations)));
+    }
+
+    @Test
+    public void it_should_store_the_jar_checksums_on_disk() throws IOException {
+        File jar = controllersJar();
+        File directory = folder.newFolder("scans");
+        String[] locations = {ApiClassScannerTest.class.getName()};
+        new ApiClassScanner(locations, 1, new JarScanCache(directory)).scan(Collections.singletonList(jar));
+        File checksums = new File(directory, "checksums");
+        String sha1 = Checksums.sha1(jar);
+        assertEquals(jar.length() + " " + jar.lastModified() + " " + sha1 + " " + jar.getAbsolutePath() + "\n",
+                FileUtils.fileRead(checksums, "UTF-8"));
+
+        // the stored checksum is trusted while the jar keeps its size and modification time
+        FileUtils.fileWrite(checksums, "UTF-8", FileUtils.fileRead(checksums, "UTF-8").replace(sha1, "stored"));
+        assertEquals("stored", new JarScanCache(directory).checksum(jar));
+        assertTrue(jar.setLastModified(jar.lastModified() - 60000));
+        assertEquals(sha1, new JarScanCache(directory).checksum(jar));
+    }
+
+    @Test
+    public void it_should_match_locations_by_prefix() {
+        ApiClassScanner scanner = new ApiClassScanner(new String[]{"org.company.controller"});
+        assertTrue(scanner.isCandidate("org/company/controller/UserController.class"));
+        assertFalse(scanner.isCandidate("org/company/model/User.class"));
+        assertFalse(scanner.isCandidate("org/company/controller/messages.properties"));
+    }
+
+    @Test
+    public void it_should_prune_directories_outside_of_the_locations() {
+        ApiClassScanner scanner = new ApiClassScanner(new String[]{"org.company.controller"});
+        assertTrue(scanner.isCandidateDirectory("org"));
+        assertTrue(scanner.isCandidateDirectory("org/company"));
+        assertTrue(scanner.isCandidateDirectory("org/company/controller"));
+        assertTrue(scanner.isCandidateDirectory("org/company/controller/admin"));
+        assertFalse(scanner.isCandidateDirectory("org/company/model"));
+        assertFalse(scanner.isCandidateDirectory("org/companyx"));
+        assertFalse(scanner.isCandidateDirectory("META-INF"));
+    }
+
+    @Api("annotated")
+    @Path("/annotated")
+    static class AnnotatedController {
+    }
+
+    @Deprecated
+    @Path({"/first", "/second"})
+    @Api(value = "constants", description = "controller with wide constants")
+    static class ConstantsController {
+        static final long LONG = Long.MAX_VALUE;
+        static final double DOUBLE = Double.MAX_VALUE;
+    }
+
+    @Path("/plain")
+    static class PlainController {
+    }
+
+    static class MethodAnnotatedController {
+        @ApiOperation("not a resource")
+        public void operation() {
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParameterNamesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Method method(Class<?> clazz, String name) {
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    public void it_should_read_the_local_variable_table() throws IOException {
+        assertArrayEquals(new String[]{"id", "amount", "name"}, ParameterNames.lookup(method(Methods.class, "instance")));
+        assertArrayEquals(new String[]{"values", "ratio", "flag"}, ParameterNames.lookup(method(Methods.class, "statik")));
+        assertArrayEquals(new String[]{}, ParameterNames.lookup(method(Methods.class, "none")));
+    }
+
+    @Test
+    public void it_should_read_the_method_parameters_attribute() throws Exception {
+        File classes = folder.newFolder("classes");
+        JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///sample/Parameters.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return "package sample;\npublic class Parameters {\n    public void find(long id, String expand) {}\n}\n";
+            }
+        };
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertTrue(compiler.getTask(null, null, null, Arrays.asList("-g:none", "-parameters", "-d", classes.getPath()),
+                null, Collections.singletonList(source)).call());
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, null);
+        try {
+            Method find = method(classLoader.loadClass("sample.Parameters"), "find");
+            assertArrayEquals(new String[]{"id", "expand"}, ParameterNames.lookup(find));
+        } finally {
+            classLoader.close();
+        }
+    }
+
+    @Test
+    public void it_should_compute_method_descriptors() {
+        assertEquals("(JD[[Ljava/lang/String;)V", ParameterNames.descriptor(method(Methods.class, "instance")));
+        assertArrayEquals(new int[]{1, 3, 5}, ParameterNames.parameterSlots("(JD[[Ljava/lang/String;)V", false));
+        assertArrayEquals(new int[]{0, 1, 3}, ParameterNames.parameterSlots("([JDZ)Ljava/util/List;", true));
+    }
+
+    @SuppressWarnings("unused")
+    static class Methods {
+        void instance(long id, double amount, String[][] name) {
+            long local = id;
+        }
+
+        static List<String> statik(long[] values, double ratio, boolean flag) {
+            return null;
+        }
+
+        void none() {
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.scanner;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScanScopeTest {
+
+    private static final File OUTPUT = new File("target/classes");
+    private static final File API_JAR = new File("repo/api-1.0.jar");
+    private static final File COMMONS_JAR = new File("repo/commons-lang-2.6.jar");
+
+    private static final List<String> CLASSPATH = Arrays.asList(OUTPUT.getPath(), API_JAR.getPath(), COMMONS_JAR.getPath());
+    private static final List<Artifact> ARTIFACTS = Arrays.asList(
+            artifact("org.company", "api", API_JAR), artifact("commons-lang", "commons-lang", COMMONS_JAR));
+
+    private static Artifact artifact(String groupId, String artifactId, File file) {
+        Artifact artifact = new DefaultArtifact(groupId, artifactId, VersionRange.createFromVersion("1.0"),
+                Artifact.SCOPE_COMPILE, "jar", null, new DefaultArtifactHandler("jar"));
+        artifact.setFile(file);
+        return artifact;
+    }
+
+    @Test
+    public void it_should_scan_the_whole_classpath_by_default() {
+        List<File> roots = new ScanScope(OUTPUT, false, null, null).roots(CLASSPATH, ARTIFACTS);
+        assertEquals(Arrays.asList(OUTPUT.getAbsoluteFile(), API_JAR.getAbsoluteFile(), COMMONS_JAR.getAbsoluteFile()), roots);
+    }
+
+    @Test
+    public void it_should_scan_the_output_directory_only() {
+        List<File> roots = new ScanScope(OUTPUT, true, null, null).roots(CLASSPATH, ARTIFACTS);
+        assertEquals(Arrays.asList(OUTPUT.getAbsoluteFile()), roots);
+    }
+
+    @Test
+    public void it_should_scan_the_included_dependencies() {
+        List<File> roots = new ScanScope(OUTPUT, false, new String[]{"org.company:*"}, null).roots(CLASSPATH, ARTIFACTS);
+        assertEquals(Arrays.asList(OUTPUT.getAbsoluteFile(), API_JAR.getAbsoluteFile()), roots);
+    }
+
+    @Test
+    public void it_should_skip_the_excluded_entries() {
+        List<File> byName = new ScanScope(OUTPUT, false, null, new String[]{"commons-*.jar"}).roots(CLASSPATH, ARTIFACTS);
+        List<File> byCoordinates = new ScanScope(OUTPUT, false, null, new String[]{"commons-lang:*"}).roots(CLASSPATH, ARTIFACTS);
+        assertEquals(Arrays.asList(OUTPUT.getAbsoluteFile(), API_JAR.getAbsoluteFile()), byName);
+        assertEquals(byName, byCoordinates);
+    }
+
+    @Test
+    public void it_should_match_globs() {
+        assertTrue(ScanScope.glob("spring-*-3.?.jar").matcher("spring-core-3.2.jar").matches());
+        assertTrue(ScanScope.glob("a.b:c").matcher("a.b:c").matches());
+        assertFalse(ScanScope.glob("a.b:c").matcher("aXb:c").matches());
+    }
+
+}
@@ -23,6 +23,7 @@ import br.com.caelum.vraptor.Get;
 import com.github.lucasaraujo.swagger.model.*;
 import com.wordnik.swagger.annotations.Api;
 import com.wordnik.swagger.annotations.ApiOperation;
+import com.wordnik.swagger.annotations.ApiParam;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.joda.time.DateTime;
 import org.junit.Test;
@@ -97,6 +98,66 @@ public class BaseBuilderTest {
         assertArrayEquals(new Class<?>[]{Integer.class}, classes);
     }
 
+    @Test
+    public void it_should_discover_deep_interface_type_argument() throws NoSuchFieldException, SecurityException {
+        Field field = NestedObject.class.getDeclaredField("page");
+        Class<?>[] classes = BaseBuilder.fieldGenericTypesForClass(field, Iterable.class);
+        assertArrayEquals(new Class<?>[]{Integer.class}, classes);
+    }
+
+    @Test
+    public void it_should_unwrap_nested_containers() {
+        ModelObject model = BaseBuilder.introspectModel(NestedObject.class, new TypeResolver()).model;
+        assertArrayOf(ItemsObject.INTEGER, model.properties.get("listList"));
+        assertArrayOf(ItemsObject.INTEGER, model.properties.get("listArray"));
+        assertArrayOf(ItemsObject.INTEGER, model.properties.get("page"));
+        assertEquals("Map", model.properties.get("listMap").$ref);
+        assertEquals("Object", model.properties.get("value").$ref);
+    }
+
+    @Test
+    public void it_should_keep_the_type_of_the_map_values() {
+        ModelObject model = BaseBuilder.introspectModel(NestedObject.class, new TypeResolver()).model;
+        assertArrayOf(ItemsObject.INTEGER, model.properties.get("listMap").additionalProperties);
+        DataTypeFields mapList = model.properties.get("mapList");
+        assertArrayOf(new ItemsObject("Map"), mapList);
+        assertPrimitive(ItemsObject.LONG, mapList.items.additionalProperties);
+        DataTypeFields mapSet = model.properties.get("mapSet");
+        assertArrayOf(new ItemsObject("Map"), mapSet);
+        assertTrue(mapSet.uniqueItems);
+        assertEquals("Map", mapSet.items.additionalProperties.$ref);
+        assertArrayOf(ItemsObject.STRING, mapSet.items.additionalProperties.additionalProperties);
+        assertNull(model.properties.get("listList").items.additionalProperties);
+        assertNull(model.properties.get("value").additionalProperties);
+    }
+
+    @Test
+    public void it_should_tell_overloaded_operations_apart() throws MojoExecutionException {
+        Set<String> nicknames = new HashSet<String>();
+        for (ControllerMetadata.OperationMetadata operation : ControllerMetadata.of(OverloadedObject.class).operations) {
+            nicknames.add(operation.nickname);
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("find_Long", "find_String_int_array", "list")), nicknames);
+    }
+
+    @Test
+    public void it_should_not_put_brackets_in_nicknames() {
+        assertEquals("find_String_int_array_array", BaseBuilder.nickname("find", true, Arrays.asList("String", "int[][]")));
+        assertEquals("find", BaseBuilder.nickname("find", false, Arrays.asList("int[]")));
+    }
+
+    @Test
+    public void it_should_read_the_api_param_of_the_method_parameters() throws MojoExecutionException {
+        List<ParameterObject> params = ApiDeclarationBuilder.buildOf(DocumentedObject.class).apis.get(0).operations.get(0).parameters;
+        assertEquals(2, params.size());
+        assertEquals("id", params.get(0).name);
+        assertEquals("Identifier", params.get(0).description);
+        assertTrue(params.get(0).required);
+        assertEquals("with", params.get(1).name);
+        assertEquals("Related data", params.get(1).description);
+        assertTrue(params.get(1).allowMultiple);
+    }
+
     @Test
     public void it_should_set_primitive_types() throws MojoExecutionException {
         ApiDeclaration apiDeclaration = ApiDeclarationBuilder.buildOf(TestObject.class);
@@ -157,6 +218,55 @@ public class BaseBuilderTest {
     private static class Three<B> extends Two<Integer> {
     }
 
+    private static interface Page<E> extends List<E> {
+    }
+
+    private static interface IntegerPage extends Page<Integer> {
+    }
+
+    @SuppressWarnings("unused")
+    private static class NestedObject<T> {
+        public Map<String, List<Integer>> listMap;
+        public List<List<Integer>> listList;
+        public List<Integer>[] listArray;
+        public IntegerPage page;
+        public T value;
+        public List<Map<String, Long>> mapList;
+        public Set<? extends Map<String, Map<String, String[]>>> mapSet;
+    }
+
+    @SuppressWarnings("unused")
+    @Api("overloaded")
+    private static class OverloadedObject {
+        @Get("/{id}")
+        @ApiOperation("")
+        public void find(Long id) {
+        }
+
+        @Get("/code/{code}")
+        @ApiOperation("")
+        public void find(String code, int[] revisions) {
+        }
+
+        @Get
+        @ApiOperation("")
+        public void list() {
+        }
+
+        public void list(int page) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @Api("documented")
+    private static class DocumentedObject {
+        @Get("/{id}")
+        @ApiOperation("")
+        public void find(@ApiParam(value = "Identifier", required = true) Long id,
+                         @ApiParam(name = "with", value = "Related data", allowMultiple = true) String expand) {
+        }
+    }
+
     @SuppressWarnings("unused")
     @Api("test")
     private static class TestObject {
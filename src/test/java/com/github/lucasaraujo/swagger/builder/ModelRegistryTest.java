@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import br.com.caelum.vraptor.Get;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ModelRegistryTest {
+
+    @Test
+    public void it_should_collect_the_closure_of_a_model() {
+        ModelRegistry registry = new ModelRegistry();
+        ModelRegistry.Closure closure = registry.closure(Customer.class, new TypeResolver());
+        assertEquals(Arrays.asList("Customer", "Address", "Country"), Arrays.asList(closure.models.keySet().toArray()));
+        assertTrue(closure.dependencies.contains(Country.class.getName()));
+        assertSame(closure, registry.closure(Customer.class, new TypeResolver()));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    public void it_should_share_the_models_between_declarations() throws MojoExecutionException {
+        ModelRegistry registry = new ModelRegistry();
+        TypeResolver types = new TypeResolver();
+        ApiDeclaration first = ApiDeclarationBuilder.buildOf(CustomerController.class, new DeclarationContext(registry, types));
+        ApiDeclaration second = ApiDeclarationBuilder.buildOf(AddressController.class, new DeclarationContext(registry, types));
+        assertEquals(3, first.models.size());
+        assertEquals(2, second.models.size());
+        assertSame(first.models.get("Address"), second.models.get("Address"));
+        assertEquals(3, registry.size());
+    }
+
+    @SuppressWarnings("unused")
+    private static class Country {
+        public String code;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Address {
+        public String street;
+        public Country country;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Customer {
+        public String name;
+        public List<Address> addresses;
+    }
+
+    @Api("customers")
+    private static class CustomerController {
+        @Get
+        @ApiOperation(value = "", response = Customer.class)
+        public void show() {
+        }
+    }
+
+    @Api("addresses")
+    private static class AddressController {
+        @Get
+        @ApiOperation(value = "", response = Address.class)
+        public void show() {
+        }
+    }
+
+}
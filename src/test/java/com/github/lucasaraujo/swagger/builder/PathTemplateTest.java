@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import com.github.lucasaraujo.swagger.builder.PathTemplate.Kind;
+import com.github.lucasaraujo.swagger.builder.PathTemplate.Part;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PathTemplateTest {
+
+    private static final String[] PATHS = {"", "/", "//", "a", "/a", "a/b", "/a/b/", "/a//b", "/a--b", "test controller",
+            "/orders/{id}", "/orders/{id:[0-9]+}", "/files/{path*}", "/*", "x\n/y", "/a.b/c-d"};
+
+    @Test
+    public void it_should_parse_placeholders_and_wildcards() {
+        List<Part> parts = PathTemplate.of("/orders/{id:[0-9]{1,3}}/items/{item}/{rest*}/*").parts();
+        assertEquals(8, parts.size());
+        assertEquals(Kind.LITERAL, parts.get(0).kind);
+        assertEquals("/orders/", parts.get(0).text);
+        assertEquals(Kind.PARAMETER, parts.get(1).kind);
+        assertEquals("id", parts.get(1).name);
+        assertEquals("[0-9]{1,3}", parts.get(1).pattern);
+        assertEquals("item", parts.get(3).name);
+        assertNull(parts.get(3).pattern);
+        assertEquals("rest", parts.get(5).name);
+        assertTrue(parts.get(5).greedy);
+        assertEquals(Kind.WILDCARD, parts.get(7).kind);
+        assertEquals(Arrays.asList("id", "item", "rest"), PathTemplate.of("/orders/{id:[0-9]{1,3}}/items/{item}/{rest*}/*").parameterNames());
+    }
+
+    @Test
+    public void it_should_intern_templates() {
+        PathTemplates templates = new PathTemplates();
+        assertSame(templates.of("/orders/{id}"), templates.of("/orders/{id}"));
+        assertSame(templates.of("orders").absolute(), templates.of("/orders"));
+    }
+
+    @Test
+    public void it_should_not_share_templates_between_caches() {
+        assertNotSame(new PathTemplates().of("/orders"), new PathTemplates().of("/orders"));
+        assertNotSame(PathTemplate.of("/orders"), PathTemplate.of("/orders"));
+    }
+
+    @Test
+    public void it_should_transform_paths_as_the_regular_expressions_did() {
+        for (String path : PATHS) {
+            assertEquals(path, path.replaceFirst("(^[^/].?)", "/$1"), PathTemplate.of(path).absolute().toString());
+            assertEquals(path, path.replaceAll("(.)\\W", "$1_").replaceFirst("^/$", "/_"), PathTemplate.of(path).oneLevel().toString());
+            for (String other : PATHS) {
+                String expected = path.replaceFirst("/$", "") + other.replaceFirst("(^[^/].?)", "/$1");
+                assertEquals(path + " + " + other, expected, PathTemplate.of(path).join(PathTemplate.of(other)).toString());
+            }
+        }
+    }
+
+}
@@ -22,8 +22,10 @@ package com.github.lucasaraujo.swagger.builder;
 import br.com.caelum.vraptor.Path;
 import com.github.lucasaraujo.swagger.model.ResourceObject;
 import com.wordnik.swagger.annotations.Api;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -81,6 +83,26 @@ public class ResourceObjectBuilderTest {
         assertEquals("", resources.get(0).description);
     }
 
+    @Test
+    public void it_should_build_the_resources_from_the_controller_metadata() throws MojoExecutionException {
+        ControllerMetadata metadata = ControllerMetadata.of(SecondController.class);
+        assertEquals("/one", metadata.resourcePath.toString());
+        assertEquals(Arrays.asList("/one", "/two"), metadata.resourcePaths);
+        List<ResourceObject> resources = ResourceObjectBuilder.buildOf(metadata);
+        assertEquals(2, resources.size());
+        assertEquals("/one", resources.get(0).path);
+        assertEquals("/two", resources.get(1).path);
+    }
+
+    @Test
+    public void it_should_keep_the_hierarchy_of_nested_paths() throws MojoExecutionException {
+        ControllerMetadata metadata = ControllerMetadata.of(NestedController.class);
+        List<ResourceObject> resources = ResourceObjectBuilder.buildOf(metadata, false);
+        assertEquals(1, resources.size());
+        assertEquals("/users/{id}/orders", resources.get(0).path);
+        assertEquals("/test controller", ResourceObjectBuilder.buildOf(ControllerMetadata.of(FirstController.class), false).get(0).path);
+    }
+
     @Api(value = SHORT_DESCRIPTION, description = DESCRIPTION)
     static class FirstController {
     }
@@ -99,4 +121,9 @@ public class ResourceObjectBuilderTest {
     static class FourthController {
     }
 
+    @Api(value = "")
+    @Path("users/{id}/orders")
+    static class NestedController {
+    }
+
 }
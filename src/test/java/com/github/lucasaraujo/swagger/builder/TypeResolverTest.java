@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.builder;
+
+import com.github.lucasaraujo.swagger.builder.TypeResolver.ResolvedType;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TypeResolverTest {
+
+    private static ResolvedType resolveField(TypeResolver types, String name) throws NoSuchFieldException {
+        return types.resolve(Fields.class.getDeclaredField(name).getGenericType());
+    }
+
+    @Test
+    public void it_should_resolve_nested_type_arguments() throws NoSuchFieldException {
+        ResolvedType type = resolveField(new TypeResolver(), "nested");
+        assertEquals("java.util.Map<java.lang.String, java.util.List<java.util.Set<java.lang.Long>>>", type.toString());
+        assertEquals(Set.class, type.arguments.get(1).arguments.get(0).rawClass);
+    }
+
+    @Test
+    public void it_should_resolve_type_arguments_of_supertypes() throws NoSuchFieldException {
+        TypeResolver types = new TypeResolver();
+        ResolvedType map = types.supertype(resolveField(types, "byName"), Map.class);
+        assertEquals("java.util.Map<java.lang.String, java.util.List<java.lang.Long>>", map.toString());
+        assertNull(types.supertype(map, List.class));
+    }
+
+    @Test
+    public void it_should_intern_resolved_types() throws NoSuchFieldException {
+        TypeResolver types = new TypeResolver();
+        assertSame(resolveField(types, "nested"), resolveField(types, "sameNested"));
+        assertSame(resolveField(types, "nested").arguments.get(0), types.resolve(String.class));
+    }
+
+    @Test
+    public void it_should_erase_unbound_type_variables() throws NoSuchFieldException {
+        TypeResolver types = new TypeResolver();
+        assertEquals(Object.class, resolveField(types, "value").rawClass);
+        assertEquals(Number.class, resolveField(types, "number").rawClass);
+        assertArrayEquals(new Class<?>[]{Object.class}, types.typeArguments(resolveField(types, "raw"), Iterable.class));
+    }
+
+    @SuppressWarnings("serial")
+    private static class ByName<V> extends HashMap<String, List<V>> {
+    }
+
+    @SuppressWarnings({"unused", "rawtypes"})
+    private static class Fields<T, N extends Number> {
+        public Map<String, List<Set<Long>>> nested;
+        public Map<String, List<Set<Long>>> sameNested;
+        public ByName<Long> byName;
+        public T value;
+        public N number;
+        public List raw;
+    }
+
+}
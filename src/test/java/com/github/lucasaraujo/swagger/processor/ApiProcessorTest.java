@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.processor;
+
+import com.github.lucasaraujo.swagger.builder.ApiDeclarationBuilder;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ApiProcessorTest {
+
+    private static final String SOURCE = "package sample;\n"
+            + "import br.com.caelum.vraptor.*;\n"
+            + "import com.wordnik.swagger.annotations.*;\n"
+            + "import java.util.*;\n"
+            + "@Api(value = \"\", description = \"Orders\")\n"
+            + "@Path(\"/orders\")\n"
+            + "public class OrderController {\n"
+            + "    public enum Status { OPEN, CLOSED }\n"
+            + "    public static class Order {\n"
+            + "        public Long id;\n"
+            + "        public Status status;\n"
+            + "        public List<String> tags;\n"
+            + "        public Set<Item> items;\n"
+            + "        public int[] quantities;\n"
+            + "        public Map<String, List<Item>> attributes;\n"
+            + "    }\n"
+            + "    public static class Item {\n"
+            + "        public String name;\n"
+            + "    }\n"
+            + "    @Get(\"/{id}\")\n"
+            + "    @ApiOperation(value = \"Find an order\", response = Order.class)\n"
+            + "    public Order find(Long id, @ApiParam(name = \"with\", value = \"Related data\") String expand) { return null; }\n"
+            + "    @Get(\"/code/{code}\")\n"
+            + "    @ApiOperation(value = \"Find an order by code\", response = Order.class)\n"
+            + "    public Order find(@ApiParam(value = \"Order code\", required = true) String code) { return null; }\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String json(Object value) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(Inclusion.NON_NULL);
+        return mapper.writeValueAsString(value);
+    }
+
+    @Test
+    public void it_should_generate_the_same_documents_as_the_reflection_builders() throws Exception {
+        File classes = folder.newFolder("classes");
+        File docs = folder.newFolder("docs");
+        assertTrue(compile(classes, "OrderController", SOURCE, "-Aswagger.directory=" + docs.getPath()));
+
+        assertTrue(new File(docs, "service").isFile());
+        File declarationFile = new File(docs, "orders");
+        assertTrue(declarationFile.isFile());
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader());
+        try {
+            ApiDeclaration expected = ApiDeclarationBuilder.buildOf(classLoader.loadClass("sample.OrderController"));
+            expected.apiVersion = "1.0";
+            expected.basePath = "/";
+            expected.resourcePath = "/orders";
+
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode declaration = mapper.readTree(declarationFile);
+            assertEquals(mapper.readTree(json(expected)), declaration);
+            JsonNode parameter = declaration.get("apis").get(0).get("operations").get(0).get("parameters").get(1);
+            assertEquals("with", parameter.get("name").getTextValue());
+            assertEquals("Related data", parameter.get("description").getTextValue());
+        } finally {
+            classLoader.close();
+        }
+    }
+
+    @Test
+    public void it_should_keep_the_resources_not_compiled_again_in_the_listing() throws Exception {
+        File classes = folder.newFolder("classes");
+        String customers = SOURCE.replace("OrderController", "CustomerController").replace("/orders", "/customers");
+        assertTrue(compile(classes, "OrderController", SOURCE));
+        assertTrue(compile(classes, "CustomerController", customers));
+        assertTrue(compile(classes, "OrderController", SOURCE));
+
+        JsonNode listing = new ObjectMapper().readTree(new File(classes, "api-docs/service"));
+        assertEquals(2, listing.get("apis").size());
+        assertEquals("/orders", listing.get("apis").get(0).get("path").getTextValue());
+        assertEquals("/customers", listing.get("apis").get(1).get("path").getTextValue());
+        assertTrue(new File(classes, "api-docs/customers").isFile());
+    }
+
+    @Test
+    public void it_should_write_the_documents_as_the_generate_goal_is_configured() throws Exception {
+        File classes = folder.newFolder("classes");
+        File docs = folder.newFolder("docs");
+        assertTrue(compile(classes, "OrderController", SOURCE, "-Aswagger.directory=" + docs.getPath(),
+                "-Aswagger.useOutputFlatStructure=false", "-Aswagger.canonical=true"));
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode listing = mapper.readTree(new File(docs, "service"));
+        assertEquals("/orders.json", listing.get("apis").get(0).get("path").getTextValue());
+        JsonNode declaration = mapper.readTree(new File(docs, "orders.json"));
+        assertEquals("/orders", declaration.get("resourcePath").getTextValue());
+        // by path in the canonical order, in the order of the methods otherwise
+        assertEquals("/orders/code/{code}", declaration.get("apis").get(0).get("path").getTextValue());
+        assertEquals("/orders/{id}", declaration.get("apis").get(1).get("path").getTextValue());
+    }
+
+    private static boolean compile(File classes, String className, final String source, String... options) {
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///sample/" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> arguments = new ArrayList<String>(Arrays.asList("-g", "-d", classes.getPath(), "-Aswagger.apiVersion=1.0",
+                "-classpath", System.getProperty("java.class.path") + File.pathSeparator + classes.getPath()));
+        arguments.addAll(Arrays.asList(options));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, arguments, null, Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new ApiProcessor()));
+        return task.call();
+    }
+
+}
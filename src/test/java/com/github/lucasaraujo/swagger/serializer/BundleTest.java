@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.serializer;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BundleTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void it_should_index_the_documents_by_offset() throws IOException {
+        Map<String, byte[]> documents = new LinkedHashMap<String, byte[]>();
+        documents.put("service", "{\"apis\":[]}".getBytes("UTF-8"));
+        documents.put("/users", "{\"resourcePath\":\"/usuários\"}".getBytes("UTF-8"));
+        documents.put("/empty", new byte[0]);
+        File file = folder.newFile("service.bundle");
+        FileUtils.fileWrite(file.getPath(), "ISO-8859-1", new String(Bundle.write(documents), "ISO-8859-1"));
+
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            assertEquals(0x53574742, in.readInt());
+            assertEquals(1, in.readInt());
+            assertEquals(3, in.readInt());
+            assertEquals("service", in.readUTF());
+            long offset = in.readLong();
+            assertEquals(11, in.readInt());
+            assertEquals("/users", in.readUTF());
+            assertEquals(offset + 11, in.readLong());
+            in.seek(offset);
+            byte[] listing = new byte[11];
+            in.readFully(listing);
+            assertEquals("{\"apis\":[]}", new String(listing, "UTF-8"));
+        } finally {
+            in.close();
+        }
+
+        Map<String, byte[]> read = Bundle.read(file);
+        assertEquals(new ArrayList<String>(documents.keySet()), new ArrayList<String>(read.keySet()));
+        for (String path : documents.keySet()) {
+            assertArrayEquals(documents.get(path), read.get(path));
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.serializer;
+
+import br.com.caelum.vraptor.Consumes;
+import br.com.caelum.vraptor.Get;
+import br.com.caelum.vraptor.Path;
+import br.com.caelum.vraptor.Post;
+import com.github.lucasaraujo.swagger.builder.ApiDeclarationBuilder;
+import com.github.lucasaraujo.swagger.model.ApiDeclaration;
+import com.github.lucasaraujo.swagger.serializer.SwaggerSerializerTest.Order;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class Swagger2DocumentTest {
+
+    @Test
+    public void it_should_share_the_definitions_of_every_declaration() throws MojoExecutionException, IOException {
+        ApiDeclaration apiDeclaration = ApiDeclarationBuilder.buildOf(PurchaseController.class);
+        Swagger2Document document = new Swagger2Document("Purchases", "1.0", "/");
+        document.add("/purchases", "purchases", apiDeclaration);
+        ApiDeclaration orders = ApiDeclarationBuilder.buildOf(SwaggerSerializerTest.OrderController.class);
+        document.add("/orders", "orders", orders);
+        JsonNode swagger = new ObjectMapper().readTree(new SwaggerSerializer().serialize(document));
+
+        assertEquals("2.0", swagger.get("swagger").getTextValue());
+        assertEquals("Purchases", swagger.get("info").get("title").getTextValue());
+        assertEquals(2, swagger.get("tags").size());
+
+        JsonNode find = swagger.get("paths").get("/purchases/{id}").get("get");
+        assertEquals("purchases", find.get("tags").get(0).getTextValue());
+        assertEquals("find", find.get("operationId").getTextValue());
+        assertEquals("path", find.get("parameters").get(0).get("in").getTextValue());
+        assertTrue(find.get("parameters").get(0).get("required").getBooleanValue());
+        assertEquals("#/definitions/Order", find.get("responses").get("200").get("schema").get("$ref").getTextValue());
+        assertFalse(find.has("deprecated"));
+
+        JsonNode save = swagger.get("paths").get("/purchases/save").get("post");
+        assertEquals("body", save.get("parameters").get(0).get("in").getTextValue());
+        assertEquals("#/definitions/$Order", save.get("parameters").get(0).get("schema").get("$ref").getTextValue());
+        assertTrue(save.get("deprecated").getBooleanValue());
+
+        JsonNode saveOrder = swagger.get("paths").get("/orders/save").get("post");
+        assertEquals("formData", saveOrder.get("parameters").get(0).get("in").getTextValue());
+        assertEquals("string", saveOrder.get("parameters").get(0).get("type").getTextValue());
+
+        JsonNode definitions = swagger.get("definitions");
+        assertTrue(definitions.has("$Order"));
+        assertEquals("object", definitions.get("Order").get("type").getTextValue());
+        assertEquals("#/definitions/Item", definitions.get("Order").get("properties").get("items").get("items").get("$ref").getTextValue());
+        Set<String> models = new HashSet<String>(apiDeclaration.models.keySet());
+        models.addAll(orders.models.keySet());
+        assertEquals(models.size(), definitions.size());
+    }
+
+    @Test
+    public void it_should_rename_models_conflicting_with_a_defined_one() throws MojoExecutionException, IOException {
+        Swagger2Document document = new Swagger2Document("Customers", "1.0", "/");
+        document.add("/admin", "admin", ApiDeclarationBuilder.buildOf(AdminController.class));
+        document.add("/customers", "customers", ApiDeclarationBuilder.buildOf(CustomerController.class));
+        document.add("/purchases", "purchases", ApiDeclarationBuilder.buildOf(PurchaseController.class));
+        JsonNode swagger = new ObjectMapper().readTree(new SwaggerSerializer().serialize(document));
+
+        JsonNode definitions = swagger.get("definitions");
+        assertEquals("c", definitions.get("$Customer").get("required").get(0).getTextValue());
+        assertEquals("customer", definitions.get("$Customer_2").get("required").get(0).getTextValue());
+        assertEquals("#/definitions/Customer", definitions.get("$Customer_2").get("properties").get("customer").get("$ref").getTextValue());
+        assertFalse(definitions.has("Customer_2"));
+        assertEquals("#/definitions/$Customer", swagger.get("paths").get("/admin/update").get("post")
+                .get("parameters").get(0).get("schema").get("$ref").getTextValue());
+        assertEquals("#/definitions/$Customer_2", swagger.get("paths").get("/customers/save").get("post")
+                .get("parameters").get(0).get("schema").get("$ref").getTextValue());
+        assertEquals(1, document.warnings().size());
+    }
+
+    @Test
+    public void it_should_warn_about_dropped_operations() throws MojoExecutionException, IOException {
+        Swagger2Document document = new Swagger2Document("Customers", "1.0", "/");
+        document.add("/customers", "customers", ApiDeclarationBuilder.buildOf(CustomerController.class));
+        ApiDeclaration other = ApiDeclarationBuilder.buildOf(CustomerController.class);
+        other.apis.get(0).operations.get(0).nickname = "store";
+        document.add("/clients", "clients", other);
+
+        assertEquals(1, document.warnings().size());
+        assertTrue(document.warnings().get(0).contains("store"));
+    }
+
+    @Test
+    public void it_should_split_an_absolute_base_path() throws IOException {
+        Swagger2Document document = new Swagger2Document("Orders", "1.0", "HTTPS://api.example.com:8443/v1/");
+        assertEquals("api.example.com:8443", document.host);
+        assertArrayEquals(new String[]{"https"}, document.schemes);
+        assertEquals("/v1", document.basePath);
+        JsonNode swagger = new ObjectMapper().readTree(new SwaggerSerializer().serialize(document));
+        assertEquals("api.example.com:8443", swagger.get("host").getTextValue());
+        assertEquals("https", swagger.get("schemes").get(0).getTextValue());
+        assertEquals("/v1", swagger.get("basePath").getTextValue());
+
+        assertEquals("/", new Swagger2Document("Orders", "1.0", "http://api.example.com").basePath);
+        Swagger2Document relative = new Swagger2Document("Orders", "1.0", "api/");
+        assertNull(relative.host);
+        assertNull(relative.schemes);
+        assertEquals("/api", relative.basePath);
+        assertEquals("/", new Swagger2Document("Orders", "1.0", "/").basePath);
+    }
+
+    @Test
+    public void it_should_reduce_placeholders_to_their_name() {
+        assertEquals("/orders/{id}/items/{path}", Swagger2Document.path("/orders/{id:[0-9]+}/items/{path*}"));
+    }
+
+    @Test
+    public void it_should_read_declarations_back() throws MojoExecutionException, IOException {
+        ApiDeclaration apiDeclaration = ApiDeclarationBuilder.buildOf(PurchaseController.class);
+        apiDeclaration.resourcePath = "/purchases";
+        SwaggerSerializer serializer = new SwaggerSerializer();
+        byte[] content = serializer.serialize(apiDeclaration);
+        assertArrayEquals(content, serializer.serialize(serializer.readDeclaration(content)));
+    }
+
+    static class Customer {
+        String name;
+    }
+
+    @Api("/customers")
+    @Path("/customers")
+    static class CustomerController {
+
+        @Post
+        @Consumes("application/json")
+        @ApiOperation("save")
+        public void save(Customer customer) {
+        }
+
+    }
+
+    @Api("/admin")
+    @Path("/admin")
+    static class AdminController {
+
+        @Post
+        @Consumes("application/json")
+        @ApiOperation("update")
+        public void update(Customer c) {
+        }
+
+    }
+
+    @Api("/purchases")
+    @Path("/purchases")
+    static class PurchaseController {
+
+        @Get("/{id:[0-9]+}")
+        @ApiOperation(value = "find", response = Order.class)
+        public Order find(Long id) {
+            return null;
+        }
+
+        @Post
+        @Consumes("application/json")
+        @ApiOperation("save")
+        @Deprecated
+        public void save(Order order) {
+        }
+
+    }
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.github.lucasaraujo.swagger.serializer;
+
+import br.com.caelum.vraptor.Get;
+import br.com.caelum.vraptor.Path;
+import br.com.caelum.vraptor.Post;
+import com.github.lucasaraujo.swagger.builder.ApiDeclarationBuilder;
+import com.github.lucasaraujo.swagger.model.*;
+import com.wordnik.swagger.annotations.Api;
+import com.wordnik.swagger.annotations.ApiOperation;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwaggerSerializerTest {
+
+    private static String mapper(Object document) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(Inclusion.NON_NULL);
+        return mapper.writeValueAsString(document);
+    }
+
+    private static String serializer(Object document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SwaggerSerializer().write(document, out);
+        return out.toString("UTF-8");
+    }
+
+    @Test
+    public void it_should_write_built_declarations_as_the_object_mapper() throws MojoExecutionException, IOException {
+        ApiDeclaration apiDeclaration = ApiDeclarationBuilder.buildOf(OrderController.class);
+        apiDeclaration.apiVersion = "1.0";
+        apiDeclaration.basePath = "/";
+        apiDeclaration.resourcePath = "/orders";
+        assertEquals(mapper(apiDeclaration), serializer(apiDeclaration));
+    }
+
+    @Test
+    public void it_should_write_every_field_as_the_object_mapper() throws IOException {
+        ParameterObject parameter = new ParameterObject();
+        parameter.paramType = "query";
+        parameter.name = "status";
+        parameter.description = "the \"status\"\n";
+        parameter.required = true;
+        parameter.type = "array";
+        parameter.items = new ItemsObject("string", null);
+        parameter.uniqueItems = true;
+        parameter.defaultValue = "NEW";
+        parameter.minimum = "0";
+        parameter.maximum = "9";
+        parameter.enun = new String[]{"NEW", null, "é"};
+
+        ResponseMessageObject responseMessage = new ResponseMessageObject();
+        responseMessage.code = 404;
+        responseMessage.message = "not found";
+        responseMessage.responseModel = "Error";
+
+        OperationObject operation = new OperationObject();
+        operation.method = "GET";
+        operation.summary = "summary";
+        operation.notes = "notes";
+        operation.nickname = "list";
+        operation.$ref = "Order";
+        operation.parameters = Arrays.asList(parameter, new ParameterObject(), null);
+        operation.responseMessages = Arrays.asList(responseMessage, new ResponseMessageObject());
+        operation.produces = new String[]{"application/json"};
+        operation.consumes = new String[]{};
+        operation.deprecated = "true";
+        operation.enun = new String[]{"A"};
+
+        PropertyObject property = new PropertyObject();
+        property.type = "integer";
+        property.format = "int64";
+        property.description = "identifier";
+        ModelObject model = new ModelObject();
+        model.id = "Order";
+        model.description = "an order";
+        model.required = new String[]{"id"};
+        model.properties = new LinkedHashMap<String, PropertyObject>();
+        model.properties.put("id", property);
+        model.properties.put("none", null);
+        PropertyObject attributes = new PropertyObject();
+        attributes.$ref = "Map";
+        attributes.additionalProperties = new DataTypeFields();
+        attributes.additionalProperties.type = "array";
+        attributes.additionalProperties.items = new ItemsObject("Order");
+        attributes.additionalProperties.enun = new String[]{"B"};
+        model.properties.put("attributes", attributes);
+
+        ApiObject api = new ApiObject();
+        api.path = "/orders";
+        api.description = "orders";
+        api.operations = Arrays.asList(operation);
+
+        ApiDeclaration apiDeclaration = new ApiDeclaration();
+        apiDeclaration.apiVersion = "1.0";
+        apiDeclaration.basePath = "http://localhost/";
+        apiDeclaration.resourcePath = "/orders";
+        apiDeclaration.apis = Arrays.asList(api, new ApiObject());
+        apiDeclaration.models = new LinkedHashMap<String, ModelObject>();
+        apiDeclaration.models.put("Order", model);
+        apiDeclaration.models.put("Empty", new ModelObject());
+        apiDeclaration.modelsPath = "/service.models";
+        apiDeclaration.modelIds = new String[]{"Order", "Empty"};
+        apiDeclaration.produces = new String[]{"application/json", "text/xml"};
+        apiDeclaration.consumes = new String[]{"application/json"};
+        assertEquals(mapper(apiDeclaration), serializer(apiDeclaration));
+        assertEquals(mapper(new ApiDeclaration()), serializer(new ApiDeclaration()));
+    }
+
+    @Test
+    public void it_should_write_the_same_documents_in_smile() throws MojoExecutionException, IOException {
+        ApiDeclaration apiDeclaration = ApiDeclarationBuilder.buildOf(OrderController.class);
+        apiDeclaration.resourcePath = "/orders";
+        SwaggerSerializer serializer = new SwaggerSerializer();
+        byte[] smile = serializer.serializeSmile(apiDeclaration);
+        byte[] json = serializer.serialize(apiDeclaration);
+        assertEquals(new ObjectMapper().readTree(json), new ObjectMapper(new SmileFactory()).readTree(smile));
+        assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    public void it_should_write_listings_as_the_object_mapper() throws IOException {
+        ResourceObject resource = new ResourceObject();
+        resource.path = "/orders";
+        resource.description = "orders";
+        ResourceListing listing = new ResourceListing();
+        listing.apiVersion = "1.0";
+        listing.apis = Arrays.asList(resource, new ResourceObject());
+        assertEquals(mapper(listing), serializer(listing));
+    }
+
+    @Test
+    public void it_should_write_canonical_declarations_whatever_the_build_order() throws IOException {
+        ApiDeclaration first = unorderedDeclaration(false);
+        ApiDeclaration second = unorderedDeclaration(true);
+        SwaggerSerializer serializer = new SwaggerSerializer(true);
+        String canonical = new String(serializer.serialize(first), "UTF-8");
+        assertEquals(canonical, new String(serializer.serialize(second), "UTF-8"));
+        assertEquals("{\"swaggerVersion\":\"1.2\",\"apis\":[{\"path\":\"/a\",\"operations\":["
+                + "{\"method\":\"GET\",\"nickname\":\"find\",\"authorizations\":{},\"parameters\":["
+                + "{\"paramType\":\"path\",\"name\":\"id\",\"required\":false,\"allowMultiple\":false},"
+                + "{\"paramType\":\"query\",\"name\":\"a\",\"required\":false,\"allowMultiple\":false},"
+                + "{\"paramType\":\"query\",\"name\":\"b\",\"required\":false,\"allowMultiple\":false}]},"
+                + "{\"method\":\"GET\",\"nickname\":\"list\",\"authorizations\":{}}]},{\"path\":\"/b\"}],"
+                + "\"models\":{\"A\":{\"id\":\"A\",\"properties\":{\"x\":{\"type\":\"string\"},\"y\":{\"type\":\"string\"}}},"
+                + "\"B\":{\"id\":\"B\"}}}", canonical);
+    }
+
+    private static ApiDeclaration unorderedDeclaration(boolean reversed) {
+        ParameterObject id = parameter("path", "id");
+        ParameterObject a = parameter("query", "a");
+        ParameterObject b = parameter("query", "b");
+        OperationObject find = new OperationObject();
+        find.method = "GET";
+        find.nickname = "find";
+        find.parameters = reversed ? Arrays.asList(b, a, id) : Arrays.asList(a, id, b);
+        OperationObject list = new OperationObject();
+        list.method = "GET";
+        list.nickname = "list";
+        ApiObject first = new ApiObject();
+        first.path = "/a";
+        first.operations = reversed ? Arrays.asList(list, find) : Arrays.asList(find, list);
+        ApiObject second = new ApiObject();
+        second.path = "/b";
+
+        ModelObject model = new ModelObject();
+        model.id = "A";
+        model.properties = new LinkedHashMap<String, PropertyObject>();
+        for (String name : reversed ? new String[]{"y", "x"} : new String[]{"x", "y"}) {
+            PropertyObject property = new PropertyObject();
+            property.type = "string";
+            model.properties.put(name, property);
+        }
+        ModelObject other = new ModelObject();
+        other.id = "B";
+
+        ApiDeclaration apiDeclaration = new ApiDeclaration();
+        apiDeclaration.apis = reversed ? Arrays.asList(second, first) : Arrays.asList(first, second);
+        apiDeclaration.models = new LinkedHashMap<String, ModelObject>();
+        apiDeclaration.models.put(reversed ? "B" : "A", reversed ? other : model);
+        apiDeclaration.models.put(reversed ? "A" : "B", reversed ? model : other);
+        return apiDeclaration;
+    }
+
+    private static ParameterObject parameter(String paramType, String name) {
+        ParameterObject parameter = new ParameterObject();
+        parameter.paramType = paramType;
+        parameter.name = name;
+        return parameter;
+    }
+
+    @Api("/orders")
+    @Path("/orders")
+    static class OrderController {
+
+        @Get("/{id}")
+        @ApiOperation(value = "find", notes = "finds an order")
+        public Order find(Long id) {
+            return null;
+        }
+
+        @Post
+        @ApiOperation("save")
+        public void save(Order order, Set<Status> statuses) {
+        }
+
+    }
+
+    enum Status {
+        NEW, PAID
+    }
+
+    static class Order {
+        Long id;
+        Status status;
+        List<Item> items;
+        Set<String> tags;
+        int[] quantities;
+    }
+
+    static class Item {
+        String name;
+        Map<String, Object> attributes;
+    }
+
+}